@@ -0,0 +1,697 @@
+package fan.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 对象集合的分组聚合。按一个或多个字段分组, 计算行数(count), 合计(sum), 最小值(min), 最大值(max), 平均值(avg),
+ * 基本类型字段不装箱读取; 整数类型字段以 long 累加, 合计超出 long 范围时抛出异常; BigDecimal, BigInteger 字段以 BigDecimal 精确累加;
+ * 其余数值类型以 double 累加。
+ * 聚合规格不可变, 可在多次调用及多个线程间共享, 聚合时可选并行计算各段的部分结果后合并
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-29
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class Aggregation {
+
+	// aggregate functions
+	private static final int COUNT = 0, SUM = 1, MIN = 2, MAX = 3, AVG = 4;
+	private static final String[] FUNCTION_NAMES = { "count", "sum", "min", "max", "avg" };
+	// the group of the null single key
+	private static final Object NULL_KEY = new Object();
+
+	private final KeyAccessor[] groupBy;
+	private final int[] functions;
+	// measured field of each aggregate, null for count
+	private final KeyAccessor[] measures;
+	private final String[] aliases;
+
+	private Aggregation(KeyAccessor[] groupBy, int[] functions, KeyAccessor[] measures, String[] aliases){
+		this.groupBy = groupBy;
+		this.functions = functions;
+		this.measures = measures;
+		this.aliases = aliases;
+	}
+
+	/**
+	 * <p><des> 按参数字段分组, 不指定字段时全部元素为一组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// compile once, reuse across calls and threads</notes>
+	 * private static final Aggregation SALARY_BY_DEPT = Aggregation.groupBy("dept", "city")
+	 *     .count().sum("salary").avg("salary").max("age", "oldest");
+	 *
+	 * for(Aggregation.Group group : SALARY_BY_DEPT.aggregate(employees)){
+	 *     Testing.printlnObject(group);
+	 * }
+	 * <b><em>output look like：</em></b>
+	 * <output>[develop, 广州] {count=12, sum(salary)=186000, avg(salary)=15500.0, oldest=41}
+	 * [sale, 广州] {count=8, sum(salary)=96000, avg(salary)=12000.0, oldest=35}</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static Aggregation groupBy(String... fields){
+		KeyAccessor[] groupBy = new KeyAccessor[fields.length];
+		for(int i = 0; i < fields.length; i++){
+			groupBy[i] = new KeyAccessor(fields[i]);
+		}
+		return new Aggregation(groupBy, new int[0], new KeyAccessor[0], new String[0]);
+	}
+
+	/**
+	 * <p><des> 追加行数聚合, 别名为 "count" </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation count(){
+		return count(FUNCTION_NAMES[COUNT]);
+	}
+
+	/**
+	 * <p><des> 追加行数聚合, 以参数为别名 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation count(String alias){
+		return with(COUNT, null, alias);
+	}
+
+	/**
+	 * <p><des> 追加合计聚合, 别名为 "sum(字段)"; 整数类型字段的合计为 Long, 超出 long 范围时抛出 ExecutetimeException;
+	 * BigDecimal 字段的合计为 BigDecimal, BigInteger 字段的合计为 BigInteger; 其余数值类型为 Double; null 值被忽略 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation sum(String field){
+		return sum(field, null);
+	}
+
+	/**
+	 * <p><des> 追加合计聚合, 以参数2为别名 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation sum(String field, String alias){
+		return with(SUM, field, alias);
+	}
+
+	/**
+	 * <p><des> 追加最小值聚合, 别名为 "min(字段)"; 分组内没有非null值时结果为null </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation min(String field){
+		return min(field, null);
+	}
+
+	/**
+	 * <p><des> 追加最小值聚合, 以参数2为别名 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation min(String field, String alias){
+		return with(MIN, field, alias);
+	}
+
+	/**
+	 * <p><des> 追加最大值聚合, 别名为 "max(字段)"; 分组内没有非null值时结果为null </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation max(String field){
+		return max(field, null);
+	}
+
+	/**
+	 * <p><des> 追加最大值聚合, 以参数2为别名 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation max(String field, String alias){
+		return with(MAX, field, alias);
+	}
+
+	/**
+	 * <p><des> 追加平均值聚合, 别名为 "avg(字段)", 结果为 Double; null 值被忽略, 分组内没有非null值时结果为null </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation avg(String field){
+		return avg(field, null);
+	}
+
+	/**
+	 * <p><des> 追加平均值聚合, 以参数2为别名 </des></p>
+	 * @since 0.3.0
+	 */
+	public Aggregation avg(String field, String alias){
+		return with(AVG, field, alias);
+	}
+
+	/**
+	 * <p><des> 对集合聚合, 返还各分组的结果, 分组按其第一个元素在集合中出现的顺序排列 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;Aggregation.Group&gt; groups = Aggregation.groupBy("dept").sum("salary").aggregate(employees);
+	 * for(Aggregation.Group group : groups){
+	 *     Testing.printlnObject(group.getKey("dept") + " : " + group.getLong("sum(salary)"));
+	 * }
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public List<Group> aggregate(Collection<?> collection){
+		return aggregate(collection, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * <p><des> 并行的对集合聚合, 各线程分段计算部分结果后按段的顺序合并, 结果与 aggregate 一致(浮点数合计的舍入误差可能不同)。
+	 * 集合元素个数小于 CollectionUtil.PARALLEL_SORT_THRESHOLD 或只有一个处理器时按顺序计算 </des></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.Aggregation#aggregate(Collection)
+	 */
+	public List<Group> parallelAggregate(Collection<?> collection){
+		return aggregate(collection, CollectionUtil.PARALLEL_SORT_THRESHOLD);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("group by ");
+		for(int i = 0; i < groupBy.length; i++){
+			builder.append(i == 0 ? "" : ", ").append(groupBy[i].name);
+		}
+		builder.append(" select ");
+		for(int i = 0; i < aliases.length; i++){
+			builder.append(i == 0 ? "" : ", ").append(aliases[i]);
+		}
+		return builder.toString();
+	}
+
+	/** <p><des> 追加一个聚合 </des></p> */
+	private Aggregation with(int function, String field, String alias){
+		if(alias == null){
+			alias = FUNCTION_NAMES[function] + "(" + field + ")";
+		}
+		if(ArrayUtil.contains(aliases, alias)){
+			throw new ExecutetimeException("duplicate aggregate alias: " + alias);
+		}
+		int size = functions.length;
+		int[] functions = Arrays.copyOf(this.functions, size + 1);
+		KeyAccessor[] measures = Arrays.copyOf(this.measures, size + 1);
+		String[] aliases = Arrays.copyOf(this.aliases, size + 1);
+		functions[size] = function;
+		measures[size] = field == null ? null : new KeyAccessor(field);
+		aliases[size] = alias;
+		return new Aggregation(groupBy, functions, measures, aliases);
+	}
+
+	/** <p><des> 聚合, 元素个数不小于参数2且有多个处理器时并行计算 </des></p> */
+	private List<Group> aggregate(Collection<?> collection, int threshold){
+		if(CollectionUtil.isEmpty(collection)){
+			return new ArrayList<Group>(0);
+		}
+		Object[] source = collection.toArray();
+		int segments = Math.min(ParallelExecutor.parallelism(), source.length / (1 << 12));
+		Map<Object, Accumulator> groups;
+		if(source.length < threshold || segments < 2){
+			groups = new Partial(source, 0, source.length).call();
+		}else{
+			List<Partial> tasks = new ArrayList<Partial>(segments);
+			for(int i = 0; i < segments; i++){
+				tasks.add(new Partial(source, (int) ((long) source.length * i / segments),
+					(int) ((long) source.length * (i + 1) / segments)));
+			}
+			ParallelExecutor.invokeAll(tasks);
+			groups = tasks.get(0).groups;
+			for(int i = 1; i < segments; i++){
+				for(Map.Entry<Object, Accumulator> entry : tasks.get(i).groups.entrySet()){
+					Accumulator accumulator = groups.get(entry.getKey());
+					if(accumulator == null){
+						groups.put(entry.getKey(), entry.getValue());
+					}else{
+						accumulator.merge(entry.getValue());
+					}
+				}
+			}
+		}
+		List<Group> result = new ArrayList<Group>(groups.size());
+		for(Map.Entry<Object, Accumulator> entry : groups.entrySet()){
+			result.add(new Group(this, keyValues(entry.getKey()), entry.getValue().results()));
+		}
+		return result;
+	}
+
+	/** <p><des> 分组键的各字段值 </des></p> */
+	private List<Object> keyValues(Object key){
+		if(groupBy.length == 1){
+			return Collections.singletonList(key == NULL_KEY ? null : key);
+		}
+		if(key instanceof GroupKey){
+			return Collections.unmodifiableList(Arrays.asList(((GroupKey) key).values));
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一个分组的聚合结果
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-29
+	 * <p> <b> @since 0.3.0 </b>
+	 */
+	public static final class Group {
+
+		private final Aggregation aggregation;
+		private final List<Object> keys;
+		private final Object[] values;
+
+		Group(Aggregation aggregation, List<Object> keys, Object[] values){
+			this.aggregation = aggregation;
+			this.keys = keys;
+			this.values = values;
+		}
+
+		/**
+		 * <p><des> 分组字段的值, 与 groupBy 的字段顺序一致 </des></p>
+		 * @since 0.3.0
+		 */
+		public List<Object> getKeys(){
+			return keys;
+		}
+
+		/**
+		 * <p><des> 分组字段的值 </des></p>
+		 * @since 0.3.0
+		 */
+		public Object getKey(String field){
+			for(int i = 0; i < aggregation.groupBy.length; i++){
+				if(aggregation.groupBy[i].name.equals(field)){
+					return keys.get(i);
+				}
+			}
+			throw new ExecutetimeException("not a group by field: " + field);
+		}
+
+		/**
+		 * <p><des> 聚合结果, count 为 Long, sum, min, max 按字段类型为 Long, BigDecimal, BigInteger 或 Double
+		 * (同一字段中混有 double 值时为 Double), avg 为 Double </des></p>
+		 * @since 0.3.0
+		 */
+		public Number getValue(String alias){
+			String[] aliases = aggregation.aliases;
+			for(int i = 0; i < aliases.length; i++){
+				if(aliases[i].equals(alias)){
+					return (Number) values[i];
+				}
+			}
+			throw new ExecutetimeException("no aggregate named " + alias);
+		}
+
+		/**
+		 * <p><des> 聚合结果的 long 值, 结果为null时返还0 </des></p>
+		 * @since 0.3.0
+		 */
+		public long getLong(String alias){
+			Number value = getValue(alias);
+			return value == null ? 0 : value.longValue();
+		}
+
+		/**
+		 * <p><des> 聚合结果的 double 值, 结果为null时返还 NaN </des></p>
+		 * @since 0.3.0
+		 */
+		public double getDouble(String alias){
+			Number value = getValue(alias);
+			return value == null ? Double.NaN : value.doubleValue();
+		}
+
+		/**
+		 * <p><des> 以Map表示分组结果, 先是分组字段, 后是各聚合, 按定义顺序排列 </des></p>
+		 * @since 0.3.0
+		 */
+		public Map<String, Object> toMap(){
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			for(int i = 0; i < aggregation.groupBy.length; i++){
+				map.put(aggregation.groupBy[i].name, keys.get(i));
+			}
+			for(int i = 0; i < values.length; i++){
+				map.put(aggregation.aliases[i], values[i]);
+			}
+			return map;
+		}
+
+		@Override
+		public String toString() {
+			Map<String, Object> map = new LinkedHashMap<String, Object>();
+			for(int i = 0; i < values.length; i++){
+				map.put(aggregation.aliases[i], values[i]);
+			}
+			return keys + " " + map;
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一段元素的部分聚合结果
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-29
+	 */
+	private class Partial implements Callable<Map<Object, Accumulator>> {
+
+		private final Object[] source;
+		private final int low;
+		private final int high;
+		Map<Object, Accumulator> groups;
+
+		Partial(Object[] source, int low, int high){
+			this.source = source;
+			this.low = low;
+			this.high = high;
+		}
+
+		@Override
+		public Map<Object, Accumulator> call() {
+			Map<Object, Accumulator> groups = new LinkedHashMap<Object, Accumulator>();
+			Value value = new Value();
+			// the key fields of the current element, probed without allocating a key
+			Object[] values = new Object[groupBy.length], lastValues = new Object[groupBy.length];
+			GroupKey probe = new GroupKey(values);
+			Object lastKey = null;
+			Accumulator last = null;
+			for(int i = low; i < high; i++){
+				Object element = source[i];
+				Accumulator accumulator;
+				if(groupBy.length == 1){
+					Object key = groupBy[0].get(element);
+					key = key == null ? NULL_KEY : key;
+					if(last != null && (key == lastKey || key.equals(lastKey))){
+						accumulator = last; // runs of the same key are common
+					}else{
+						accumulator = groups.get(key);
+						if(accumulator == null){
+							accumulator = new Accumulator(functions.length);
+							groups.put(key, accumulator);
+						}
+						last = accumulator;
+						lastKey = key;
+					}
+				}else{
+					for(int k = 0; k < values.length; k++){
+						values[k] = groupBy[k].get(element);
+					}
+					if(last != null && Arrays.equals(values, lastValues)){
+						accumulator = last;
+					}else{
+						probe.rehash();
+						accumulator = groups.get(probe);
+						if(accumulator == null){
+							accumulator = new Accumulator(functions.length);
+							groups.put(new GroupKey(values.clone()), accumulator);
+						}
+						last = accumulator;
+						System.arraycopy(values, 0, lastValues, 0, values.length);
+					}
+				}
+				accumulator.add(element, value);
+			}
+			this.groups = groups;
+			return groups;
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一个分组的累加器, 整数及浮点数以基本类型保存, BigDecimal, BigInteger 以 BigDecimal 精确保存
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-29
+	 */
+	private class Accumulator {
+
+		private long rows;
+		// integral values
+		private final long[] longCounts;
+		private final long[] longSums;
+		private final long[] longMins;
+		private final long[] longMaxs;
+		// other numeric values
+		private final long[] doubleCounts;
+		private final double[] doubleSums;
+		private final double[] doubleMins;
+		private final double[] doubleMaxs;
+		// BigDecimal and BigInteger values, allocated on the first one
+		private long[] decimalCounts;
+		private BigDecimal[] decimalSums;
+		private BigDecimal[] decimalMins;
+		private BigDecimal[] decimalMaxs;
+		// whether a BigDecimal rather than only BigIntegers was seen
+		private boolean[] fractional;
+
+		Accumulator(int size){
+			longCounts = new long[size];
+			longSums = new long[size];
+			longMins = new long[size];
+			longMaxs = new long[size];
+			doubleCounts = new long[size];
+			doubleSums = new double[size];
+			doubleMins = new double[size];
+			doubleMaxs = new double[size];
+			Arrays.fill(longMins, Long.MAX_VALUE);
+			Arrays.fill(longMaxs, Long.MIN_VALUE);
+			Arrays.fill(doubleMins, Double.POSITIVE_INFINITY);
+			Arrays.fill(doubleMaxs, Double.NEGATIVE_INFINITY);
+		}
+
+		void add(Object element, Value value){
+			rows++;
+			for(int i = 0; i < functions.length; i++){
+				if(functions[i] == COUNT){
+					continue;
+				}
+				switch (read(measures[i], element, value)) {
+					case Value.LONG :
+						long l = value.longValue;
+						longCounts[i]++;
+						longSums[i] = addExact(longSums[i], l, i);
+						if(l < longMins[i]) longMins[i] = l;
+						if(l > longMaxs[i]) longMaxs[i] = l;
+						break;
+					case Value.DOUBLE :
+						double d = value.doubleValue;
+						doubleCounts[i]++;
+						doubleSums[i] += d;
+						if(d < doubleMins[i]) doubleMins[i] = d;
+						if(d > doubleMaxs[i]) doubleMaxs[i] = d;
+						break;
+					case Value.DECIMAL :
+						addDecimal(i, value.decimalValue, 1, value.decimalValue, value.decimalValue, true);
+						break;
+					case Value.INTEGER :
+						addDecimal(i, value.decimalValue, 1, value.decimalValue, value.decimalValue, false);
+						break;
+				}
+			}
+		}
+
+		void merge(Accumulator other){
+			rows += other.rows;
+			for(int i = 0; i < functions.length; i++){
+				longCounts[i] += other.longCounts[i];
+				longSums[i] = addExact(longSums[i], other.longSums[i], i);
+				longMins[i] = Math.min(longMins[i], other.longMins[i]);
+				longMaxs[i] = Math.max(longMaxs[i], other.longMaxs[i]);
+				doubleCounts[i] += other.doubleCounts[i];
+				doubleSums[i] += other.doubleSums[i];
+				doubleMins[i] = Math.min(doubleMins[i], other.doubleMins[i]);
+				doubleMaxs[i] = Math.max(doubleMaxs[i], other.doubleMaxs[i]);
+				if(other.decimalCounts != null && other.decimalCounts[i] != 0){
+					addDecimal(i, other.decimalSums[i], other.decimalCounts[i], other.decimalMins[i], other.decimalMaxs[i],
+						other.fractional[i]);
+				}
+			}
+		}
+
+		Object[] results(){
+			Object[] results = new Object[functions.length];
+			for(int i = 0; i < results.length; i++){
+				long longCount = longCounts[i], doubleCount = doubleCounts[i];
+				long decimalCount = decimalCounts == null ? 0 : decimalCounts[i];
+				boolean empty = longCount + doubleCount + decimalCount == 0;
+				switch (functions[i]) {
+					case COUNT :
+						results[i] = rows;
+						break;
+					case SUM :
+						if(doubleCount != 0){
+							results[i] = doubleSum(i);
+						}else if(decimalCount != 0){
+							results[i] = decimal(decimalSums[i].add(BigDecimal.valueOf(longSums[i])), i);
+						}else{
+							results[i] = longSums[i];
+						}
+						break;
+					case AVG :
+						double sum = doubleCount != 0 ? doubleSum(i)
+							: decimalCount != 0 ? decimalSums[i].add(BigDecimal.valueOf(longSums[i])).doubleValue() : longSums[i];
+						results[i] = empty ? null : sum / (longCount + doubleCount + decimalCount);
+						break;
+					case MIN :
+						results[i] = empty ? null : extreme(i, longMins[i], doubleMins[i], decimalCount == 0 ? null : decimalMins[i], -1);
+						break;
+					default :
+						results[i] = empty ? null : extreme(i, longMaxs[i], doubleMaxs[i], decimalCount == 0 ? null : decimalMaxs[i], 1);
+				}
+			}
+			return results;
+		}
+
+		/** <p><des> 累加精确值, 参数2为合计, 参数3为个数, 参数6表示其中是否有 BigDecimal </des></p> */
+		private void addDecimal(int i, BigDecimal sum, long count, BigDecimal min, BigDecimal max, boolean isFractional){
+			if(decimalCounts == null){
+				int size = functions.length;
+				decimalCounts = new long[size];
+				decimalSums = new BigDecimal[size];
+				decimalMins = new BigDecimal[size];
+				decimalMaxs = new BigDecimal[size];
+				fractional = new boolean[size];
+			}
+			if(decimalCounts[i] == 0){
+				decimalSums[i] = sum;
+				decimalMins[i] = min;
+				decimalMaxs[i] = max;
+			}else{
+				decimalSums[i] = decimalSums[i].add(sum);
+				if(min.compareTo(decimalMins[i]) < 0) decimalMins[i] = min;
+				if(max.compareTo(decimalMaxs[i]) > 0) decimalMaxs[i] = max;
+			}
+			decimalCounts[i] += count;
+			fractional[i] |= isFractional;
+		}
+
+		/** <p><des> 混有 double 值时的合计 </des></p> */
+		private double doubleSum(int i){
+			double sum = longSums[i] + doubleSums[i];
+			return decimalCounts == null || decimalCounts[i] == 0 ? sum : sum + decimalSums[i].doubleValue();
+		}
+
+		/** <p><des> 最小值或最大值, 参数5为-1时取最小值; 混有 double 值时为 Double, 否则按精确值比较 </des></p> */
+		private Number extreme(int i, long longValue, double doubleValue, BigDecimal decimalValue, int sign){
+			boolean hasLong = longCounts[i] != 0, hasDouble = doubleCounts[i] != 0;
+			if(hasDouble){
+				double d = doubleValue;
+				if(hasLong) d = sign < 0 ? Math.min(d, longValue) : Math.max(d, longValue);
+				if(decimalValue != null) d = sign < 0 ? Math.min(d, decimalValue.doubleValue()) : Math.max(d, decimalValue.doubleValue());
+				return d;
+			}
+			if(decimalValue == null){
+				return longValue;
+			}
+			if(hasLong && BigDecimal.valueOf(longValue).compareTo(decimalValue) * sign > 0){
+				decimalValue = BigDecimal.valueOf(longValue);
+			}
+			return decimal(decimalValue, i);
+		}
+
+		/** <p><des> 精确值的结果, 只有 BigInteger 及整数值时为 BigInteger, 否则为 BigDecimal </des></p> */
+		private Number decimal(BigDecimal value, int i){
+			return fractional[i] ? value : value.toBigInteger();
+		}
+	}
+
+	/** <p><des> long 合计, sum 及 avg 溢出时抛出异常而不是回绕, min 及 max 不使用合计 </des></p> */
+	private long addExact(long sum, long value, int i){
+		long result = sum + value;
+		if(((sum ^ result) & (value ^ result)) < 0 && (functions[i] == SUM || functions[i] == AVG)){
+			throw new ExecutetimeException(StringUtil.parsePlaceholder("? overflows long, use a BigInteger or BigDecimal field", aliases[i]));
+		}
+		return result;
+	}
+
+	/** <p><des> 读取数值字段, 值保存在参数3中, 返还值的类型, 基本类型字段不装箱读取 </des></p> */
+	private static int read(KeyAccessor measure, Object element, Value value){
+		KeyAccessor.Resolved current = measure.resolve(element);
+		try {
+			switch (current.kind) {
+				case FieldPlan.OBJECT :
+					Object object = current.field.get(element);
+					if(object == null){
+						return Value.NULL;
+					}
+					if(object instanceof Integer || object instanceof Long || object instanceof Short || object instanceof Byte){
+						value.longValue = ((Number) object).longValue();
+						return Value.LONG;
+					}
+					if(object instanceof BigDecimal){
+						value.decimalValue = (BigDecimal) object;
+						return Value.DECIMAL;
+					}
+					if(object instanceof BigInteger){
+						value.decimalValue = new BigDecimal((BigInteger) object);
+						return Value.INTEGER;
+					}
+					if(object instanceof Number){
+						value.doubleValue = ((Number) object).doubleValue();
+						return Value.DOUBLE;
+					}
+					throw new ExecutetimeException(measure.name + " is not a numeric field");
+				case FieldPlan.FLOAT :
+				case FieldPlan.DOUBLE :
+					value.doubleValue = current.field.getDouble(element);
+					return Value.DOUBLE;
+				case FieldPlan.BOOLEAN :
+					throw new ExecutetimeException(measure.name + " is not a numeric field");
+				default :
+					value.longValue = current.field.getLong(element);
+					return Value.LONG;
+			}
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 读取的数值, 每个聚合任务使用一个, 避免装箱
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-29
+	 */
+	private static class Value {
+
+		// kinds of value read
+		static final int NULL = 0, LONG = 1, DOUBLE = 2, DECIMAL = 3, INTEGER = 4;
+		long longValue;
+		double doubleValue;
+		BigDecimal decimalValue;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 多个字段组成的分组键
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-29
+	 */
+	private static class GroupKey {
+
+		final Object[] values;
+		private int hash;
+
+		GroupKey(Object[] values){
+			this.values = values;
+			rehash();
+		}
+
+		/** <p><des> 字段值改变后重新计算散列码, 仅用于查找的键 </des></p> */
+		void rehash(){
+			this.hash = Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof GroupKey && hash == ((GroupKey) obj).hash && Arrays.equals(values, ((GroupKey) obj).values);
+		}
+	}
+
+}
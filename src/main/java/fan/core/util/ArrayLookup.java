@@ -0,0 +1,479 @@
+package fan.core.util;
+
+import java.util.Arrays;
+import fan.core.exception.ExecutetimeException;
+import fan.core.util.collection.LongHashSet;
+/**
+ * <p> <b> @描述：</b> 由数组建立的查找结构, 用于对同一数组多次判定是否包含某个值, 由 ArrayUtil.lookup, sortedLookup 创建。
+ * 整数数组在取值范围较小时使用位图, 否则使用开放定址的散列集合; 浮点数组按数值散列, 对象数组按 equals 散列, 均为 O(1);
+ * 调用者声明已升序排序的数组使用二分查找, 为 O(log n), 不额外占用散列表的内存。
+ * 判定结果与 ArrayUtil.contains 一致: 整数按数值比较, 浮点数按 == 比较(0.0 等于 -0.0, NaN 不等于任何值)。
+ * 建立时复制数组, 之后修改原数组不影响查找; 不可变, 可在多个线程间共享
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-01
+ * <p> <b> @since 0.3.0 </b>
+ */
+public abstract class ArrayLookup {
+
+	// a bitmap is used while it needs no more than this many bits per element
+	private static final int DENSE_BITS_PER_ELEMENT = 32;
+	// and always when the range is this small
+	private static final int DENSE_MIN_BITS = 1024;
+
+	ArrayLookup(){}
+
+	/**
+	 * <p><des> 是否包含与参数数值相等的元素。浮点数组的查找结构按数值比较;
+	 * 对象数组的查找结构匹配数值相等的任一包装类型(Long, Integer, Short, Byte, Character, Double, Float) </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ArrayLookup ids = ArrayUtil.lookup(new int[]{3, 1001, 7});
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(ids.contains(1001));
+	 * <notes>// false</notes>
+	 * Testing.printlnObject(ids.contains(8));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public abstract boolean contains(long value);
+
+	/**
+	 * <p><des> 是否包含与参数数值相等的元素。整数数组的查找结构只匹配整数值;
+	 * 对象数组的查找结构匹配数值相等的任一包装类型, 整数值也匹配整数的包装类型 </des></p>
+	 * @since 0.3.0
+	 */
+	public abstract boolean contains(double value);
+
+	/**
+	 * <p><des> 是否包含与参数相等的元素。对象数组按 equals 比较, 可以查找null;
+	 * 基本类型数组的查找结构按参数的数值(Number 或 Character)比较, 其他参数返还false </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ArrayLookup names = ArrayUtil.lookup(new String[]{"fan", "core", "util"});
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(names.contains("core"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public abstract boolean contains(Object value);
+
+	/**
+	 * <p><des> 不同元素的个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public abstract int size();
+
+	@Override
+	public String toString() {
+		return "ArrayLookup[" + kind() + ", size=" + size() + "]";
+	}
+
+	/** <p><des> 查找结构的种类 </des></p> */
+	abstract String kind();
+
+	/** <p><des> 由整数数组(已扩展为 long)建立查找结构, 取值范围较小时使用位图, 否则使用散列集合 </des></p> */
+	static ArrayLookup ofIntegral(long[] values){
+		if(values.length == 0){
+			return new Hashed(new LongHashSet(0));
+		}
+		long min = values[0], max = values[0];
+		for(long value : values){
+			if(value < min){
+				min = value;
+			}else if(value > max){
+				max = value;
+			}
+		}
+		long range = max - min + 1;
+		if(range > 0 && range <= Integer.MAX_VALUE && (range <= DENSE_MIN_BITS || range <= (long) DENSE_BITS_PER_ELEMENT * values.length)){
+			return new Dense(values, min, max);
+		}
+		return new Hashed(LongHashSet.of(values));
+	}
+
+	/** <p><des> 由已升序排序的整数数组建立二分查找结构, 未排序时抛出异常 </des></p> */
+	static ArrayLookup ofSortedIntegral(long[] sorted){
+		for(int i = 1; i < sorted.length; i++){
+			if(sorted[i - 1] > sorted[i]){
+				throw unsorted(i);
+			}
+		}
+		return new Sorted(sorted);
+	}
+
+	/** <p><des> 由浮点数组(已扩展为 double)建立散列查找结构 </des></p> */
+	static ArrayLookup ofFloating(double[] values){
+		LongHashSet bits = new LongHashSet(values.length);
+		for(double value : values){
+			if(value == value){
+				bits.add(bits(value));
+			}
+		}
+		return new HashedFloating(bits);
+	}
+
+	/** <p><des> 由已升序排序的浮点数组建立二分查找结构, 未排序时抛出异常, NaN 被忽略 </des></p> */
+	static ArrayLookup ofSortedFloating(double[] sorted){
+		double[] values = new double[sorted.length];
+		int count = 0;
+		for(int i = 0; i < sorted.length; i++){
+			double value = sorted[i];
+			if(value != value){
+				continue;
+			}
+			if(count > 0 && values[count - 1] > value){
+				throw unsorted(i);
+			}
+			// -0.0 == 0.0 for contains, but Arrays.binarySearch tells them apart
+			values[count++] = value == 0 ? 0.0 : value;
+		}
+		return new SortedFloating(Arrays.copyOf(values, count));
+	}
+
+	/** <p><des> 由对象数组建立散列查找结构 </des></p> */
+	static ArrayLookup ofObjects(Object[] values){
+		return new HashedObjects(values);
+	}
+
+	/** <p><des> 浮点数用于散列的位表示, -0.0 与 0.0 相同 </des></p> */
+	static long bits(double value){
+		return Double.doubleToLongBits(value == 0 ? 0.0 : value);
+	}
+
+	/** <p><des> 数组未排序的异常 </des></p> */
+	private static ExecutetimeException unsorted(int index){
+		return new ExecutetimeException("array is not sorted in ascending order at index " + index);
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 整数元素的查找结构, 浮点数及对象参数转换为整数后查找
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static abstract class Integral extends ArrayLookup {
+
+		@Override
+		public boolean contains(double value) {
+			long integral = (long) value;
+			return integral == value && integral != Long.MAX_VALUE && integral != Long.MIN_VALUE && contains(integral);
+		}
+
+		@Override
+		public boolean contains(Object value) {
+			if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte){
+				return contains(((Number) value).longValue());
+			}
+			if(value instanceof Character){
+				return contains((long) ((Character) value).charValue());
+			}
+			return value instanceof Number && contains(((Number) value).doubleValue());
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 位图, 每个可能的值占一位, 适用于取值范围较小的整数数组
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class Dense extends Integral {
+
+		private final long min, max;
+		private final long[] words;
+		private final int size;
+
+		Dense(long[] values, long min, long max){
+			this.min = min;
+			this.max = max;
+			this.words = new long[(int) ((max - min) >>> 6) + 1];
+			int size = 0;
+			for(long value : values){
+				int bit = (int) (value - min);
+				long word = words[bit >>> 6];
+				if((word & (1L << bit)) == 0){
+					words[bit >>> 6] = word | (1L << bit);
+					size++;
+				}
+			}
+			this.size = size;
+		}
+
+		@Override
+		public boolean contains(long value) {
+			if(value < min || value > max){
+				return false;
+			}
+			int bit = (int) (value - min);
+			return (words[bit >>> 6] & (1L << bit)) != 0;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		String kind() {
+			return "bitmap";
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 整数的开放定址散列集合
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class Hashed extends Integral {
+
+		private final LongHashSet values;
+
+		Hashed(LongHashSet values){
+			this.values = values;
+		}
+
+		@Override
+		public boolean contains(long value) {
+			return values.contains(value);
+		}
+
+		@Override
+		public int size() {
+			return values.size();
+		}
+
+		@Override
+		String kind() {
+			return "hash";
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 已排序整数的二分查找
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class Sorted extends Integral {
+
+		private final long[] values;
+
+		Sorted(long[] values){
+			this.values = values;
+		}
+
+		@Override
+		public boolean contains(long value) {
+			return Arrays.binarySearch(values, value) >= 0;
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for(int i = 0; i < values.length; i++){
+				if(i == 0 || values[i] != values[i - 1]){
+					size++;
+				}
+			}
+			return size;
+		}
+
+		@Override
+		String kind() {
+			return "sorted";
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 浮点元素的查找结构, 整数及对象参数转换为 double 后查找
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static abstract class Floating extends ArrayLookup {
+
+		@Override
+		public boolean contains(long value) {
+			return contains((double) value);
+		}
+
+		@Override
+		public boolean contains(Object value) {
+			if(value instanceof Character){
+				return contains((double) ((Character) value).charValue());
+			}
+			return value instanceof Number && contains(((Number) value).doubleValue());
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 按浮点数位表示的散列集合, NaN 不加入
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class HashedFloating extends Floating {
+
+		private final LongHashSet bits;
+
+		HashedFloating(LongHashSet bits){
+			this.bits = bits;
+		}
+
+		@Override
+		public boolean contains(double value) {
+			return value == value && bits.contains(bits(value));
+		}
+
+		@Override
+		public int size() {
+			return bits.size();
+		}
+
+		@Override
+		String kind() {
+			return "hash";
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 已排序浮点数的二分查找
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class SortedFloating extends Floating {
+
+		private final double[] values;
+
+		SortedFloating(double[] values){
+			this.values = values;
+		}
+
+		@Override
+		public boolean contains(double value) {
+			return value == value && Arrays.binarySearch(values, value == 0 ? 0.0 : value) >= 0;
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for(int i = 0; i < values.length; i++){
+				if(i == 0 || values[i] != values[i - 1]){
+					size++;
+				}
+			}
+			return size;
+		}
+
+		@Override
+		String kind() {
+			return "sorted";
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 对象的开放定址散列集合, 按 equals 比较, null 单独记录
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-01
+	 */
+	private static class HashedObjects extends ArrayLookup {
+
+		private final Object[] table;
+		private final int mask;
+		private final boolean hasNull;
+		private final int size;
+
+		HashedObjects(Object[] values){
+			int capacity = 4;
+			while(capacity < values.length * 2 + 1){
+				capacity <<= 1;
+			}
+			this.table = new Object[capacity];
+			this.mask = capacity - 1;
+			boolean hasNull = false;
+			int size = 0;
+			for(Object value : values){
+				if(value == null){
+					size += hasNull ? 0 : 1;
+					hasNull = true;
+					continue;
+				}
+				int slot = slot(value);
+				Object current;
+				while((current = table[slot]) != null && !current.equals(value)){
+					slot = (slot + 1) & mask;
+				}
+				if(current == null){
+					table[slot] = value;
+					size++;
+				}
+			}
+			this.hasNull = hasNull;
+			this.size = size;
+		}
+
+		@Override
+		public boolean contains(Object value) {
+			if(value == null){
+				return hasNull;
+			}
+			for(int slot = slot(value); ; slot = (slot + 1) & mask){
+				Object current = table[slot];
+				if(current == null){
+					return false;
+				}
+				if(current == value || current.equals(value)){
+					return true;
+				}
+			}
+		}
+
+		@Override
+		public boolean contains(long value) {
+			return containsIntegral(value) || containsFloating(value);
+		}
+
+		@Override
+		public boolean contains(double value) {
+			long integral = (long) value;
+			return containsFloating(value)
+				|| integral == value && integral != Long.MAX_VALUE && integral != Long.MIN_VALUE && containsIntegral(integral);
+		}
+
+		/** <p><des> 以参数值可表示的各整数包装类型查找 </des></p> */
+		private boolean containsIntegral(long value){
+			return contains(Long.valueOf(value))
+				|| (int) value == value && contains(Integer.valueOf((int) value))
+				|| (short) value == value && contains(Short.valueOf((short) value))
+				|| (byte) value == value && contains(Byte.valueOf((byte) value))
+				|| (char) value == value && contains(Character.valueOf((char) value));
+		}
+
+		/** <p><des> 以 Double 及可精确表示时以 Float 查找 </des></p> */
+		private boolean containsFloating(double value){
+			return contains(Double.valueOf(value))
+				|| ((float) value == value || value != value) && contains(Float.valueOf((float) value));
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		String kind() {
+			return "hash";
+		}
+
+		/** <p><des> 对象的初始槽位 </des></p> */
+		private int slot(Object value){
+			int h = value.hashCode() * 0x9E3779B9;
+			return (h ^ (h >>> 16)) & mask;
+		}
+	}
+
+}
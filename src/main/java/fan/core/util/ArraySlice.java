@@ -0,0 +1,155 @@
+package fan.core.util;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+/**
+ * <p> <b> @描述：</b> 数组片段的 List 视图。直接读写原数组 [offset, offset + size) 范围内的元素, 不复制数组,
+ * 原数组的修改对视图可见; 长度固定, 不支持增删元素, 只读视图也不支持 set。
+ * 由 ArrayUtil.slice, readOnlySlice 创建, 可直接用于 CollectionUtil 的排序等 List 操作
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-02
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class ArraySlice<E> extends AbstractList<E> implements RandomAccess {
+
+	private final E[] array;
+	private final int offset;
+	private final int size;
+	private final boolean writable;
+
+	ArraySlice(E[] array, int from, int to, boolean writable){
+		if(array == null){
+			throw new NullPointerException("array");
+		}
+		if(from < 0 || to > array.length || from > to){
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + array.length);
+		}
+		this.array = array;
+		this.offset = from;
+		this.size = to - from;
+		this.writable = writable;
+	}
+
+	@Override
+	public E get(int index) {
+		return array[offset + checkIndex(index)];
+	}
+
+	/**
+	 * <p><des> 替换指定位置的元素, 直接写入原数组, 只读视图抛出 UnsupportedOperationException </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	public E set(int index, E element) {
+		if(!writable){
+			throw new UnsupportedOperationException("read-only array slice");
+		}
+		int position = offset + checkIndex(index);
+		E previous = array[position];
+		array[position] = element;
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		for(int i = 0; i < size; i++){
+			if(o == null ? array[offset + i] == null : o.equals(array[offset + i])){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		for(int i = size - 1; i >= 0; i--){
+			if(o == null ? array[offset + i] == null : o.equals(array[offset + i])){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	/**
+	 * <p><des> 返还 [from, to) 范围的子视图, 与本视图共享原数组, 读写性相同 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ArraySlice&lt;User&gt; all = ArrayUtil.readOnlySlice(users, 0, users.length);
+	 * <notes>// the third page of 20, no copy</notes>
+	 * List&lt;User&gt; page = all.slice(40, 60);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public ArraySlice<E> slice(int from, int to){
+		if(from < 0 || to > size || from > to){
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", size: " + size);
+		}
+		return new ArraySlice<E>(array, offset + from, offset + to, writable);
+	}
+
+	/** <p><des> 同 slice, 不复制数组 </des></p> */
+	@Override
+	public ArraySlice<E> subList(int fromIndex, int toIndex) {
+		return slice(fromIndex, toIndex);
+	}
+
+	/**
+	 * <p><des> 视图在原数组中的起始位置 </des></p>
+	 * @since 0.3.0
+	 */
+	public int getOffset(){
+		return offset;
+	}
+
+	/**
+	 * <p><des> 是否可以通过 set 写入原数组 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isWritable(){
+		return writable;
+	}
+
+	/**
+	 * <p><des> 返还视图元素的副本, 按 Collection 的约定为 Object[], 可以存入任意对象; 需要与原数组相同类型的数组时使用 toArray(T[]) </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	public Object[] toArray() {
+		return Arrays.copyOfRange(array, offset, offset + size, Object[].class);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if(a.length < size){
+			a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+		}
+		System.arraycopy(array, offset, a, 0, size);
+		if(a.length > size){
+			a[size] = null;
+		}
+		return a;
+	}
+
+	/** <p><des> 校验下标 </des></p> */
+	private int checkIndex(int index){
+		if(index < 0 || index >= size){
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return index;
+	}
+
+}
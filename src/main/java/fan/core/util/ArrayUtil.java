@@ -1,8 +1,10 @@
 package fan.core.util;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collection;
+import fan.core.exception.ExecutetimeException;
 /**
  * <p> <b> @描述：</b> 数组常用操作工具类
  * <p> <b> @作者：</b> fancore
@@ -14,6 +16,9 @@ public class ArrayUtil {
 	
 	private ArrayUtil(){}
 	
+	// characters buffered before they are written to an Appendable other than StringBuilder
+	private static final int APPEND_CHUNK = 8192;
+	
 	/**
 	 * <p><des> 将参数转换为数组表示 </des></p>
 	 * <p><pre>
@@ -29,7 +34,7 @@ public class ArrayUtil {
 	}
 
 	/**
-	 * <p><des> 将参数转换为数组表示 </des></p>
+	 * <p><des> 将参数转换为数组表示, 数组类型取自第一个元素的类型, 元素类型不同时应使用 asArray(Collection, Class) </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
 	 * List&lt;String&gt; list = new ArrayList&lt;String&gt;();
@@ -39,6 +44,7 @@ public class ArrayUtil {
 	 * Testing.printObject(strings);
 	 * </pre></p>
 	 * @since 0.1.0
+	 * @see fan.core.util.ArrayUtil#asArray(Collection, Class)
 	 */
 	@SuppressWarnings("unchecked")
 	public static <E> E[] asArray(Collection<E> collection){
@@ -49,6 +55,60 @@ public class ArrayUtil {
 		return collection.toArray((E[])Array.newInstance(type, collection.size()));
 	}
 	
+	/**
+	 * <p><des> 将集合转换为参数类型的数组, 按集合大小只分配一次数组; 元素可以是参数类型的不同子类,
+	 * 参数类型不能是基本类型。特别的, 如果集合为null, 则返还null, 集合为空时返还长度为 0 的数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;Number&gt; list = new ArrayList&lt;Number&gt;();
+	 * list.add(1);
+	 * list.add(2.5);
+	 * Number[] numbers = ArrayUtil.asArray(list, Number.class);
+	 * Testing.printObject(numbers);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> E[] asArray(Collection<? extends E> collection, Class<E> type){
+		if(type.isPrimitive()){
+			throw new ExecutetimeException("array component type must not be primitive: " + type);
+		}
+		if(collection == null){
+			return null;
+		}
+		return collection.toArray((E[])Array.newInstance(type, collection.size()));
+	}
+
+	/**
+	 * <p><des> 返还数组 [from, to) 范围的 List 视图, 不复制数组, 通过视图的 set 直接写入原数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * String[] strings = {"fan", "core", "util"};
+	 * List&lt;String&gt; slice = ArrayUtil.slice(strings, 1, 3);
+	 * slice.set(0, "lang");
+	 * <notes>// [fan, lang, util]</notes>
+	 * Testing.printlnObject(ArrayUtil.toString(strings));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <E> ArraySlice<E> slice(E[] origin, int from, int to){
+		return new ArraySlice<E>(origin, from, to, true);
+	}
+
+	/**
+	 * <p><des> 返还数组 [from, to) 范围的只读 List 视图, 不复制数组, 可用于分页 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int pageNo = 3, pageSize = 20;
+	 * int from = Math.min((pageNo - 1) * pageSize, users.length);
+	 * List&lt;User&gt; page = ArrayUtil.readOnlySlice(users, from, Math.min(from + pageSize, users.length));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <E> ArraySlice<E> readOnlySlice(E[] origin, int from, int to){
+		return new ArraySlice<E>(origin, from, to, false);
+	}
+	
 	/**
 	 * <p><des> 判定数组元素中是否包含参数对象, 特别的, 如果数组为null, 则永远返回false </des></p>
 	 * <p><pre>
@@ -203,59 +263,777 @@ public class ArrayUtil {
 	 * <notes>// false</notes>
 	 * Testing.printlnObject(ArrayUtil.contains(flo, 3.0f));
 	 * </pre></p>
-	 * @since 0.1.0
+	 * @since 0.1.0
+	 */
+	public static boolean contains(float[] origin, float target){
+		if(origin == null){
+			return false;
+		}
+		for(float item : origin){
+			if(item == target) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * <p><des> 判定数组元素中是否包含参数值, 特别的, 如果数组为null, 则永远返回false </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] dou = {1, 2.1, 5.3, 9, 8};
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(ArrayUtil.contains(dou, 2.1));
+	 * <notes>// false</notes>
+	 * Testing.printlnObject(ArrayUtil.contains(dou, 3.1));
+	 * </pre></p>
+	 * @since 0.1.0
+	 */
+	public static boolean contains(double[] origin, double target){
+		if(origin == null){
+			return false;
+		}
+		for(double item : origin){
+			if(item == target) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 判定数组元素中是否包含参数值, 特别的, 如果数组为null, 则永远返回false </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * boolean[] bool = {true, true, true};
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(ArrayUtil.contains(bool, true));
+	 * <notes>// false</notes>
+	 * Testing.printlnObject(ArrayUtil.contains(bool, false));
+	 * </pre></p>
+	 */
+	public static boolean contains(boolean[] origin, boolean target){
+		if(origin == null){
+			return false;
+		}
+		for(boolean item : origin){
+			if(item == target) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个元素时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 按 equals 比较, 可以查找null; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * String[] strings = {"fan", "core", "util"};
+	 * ArrayLookup lookup = ArrayUtil.lookup(strings);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains("core"));
+	 * <notes>// false</notes>
+	 * Testing.printlnObject(lookup.contains("fancore"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(Object[] origin){
+		return ArrayLookup.ofObjects(origin == null ? new Object[0] : origin);
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 取值范围较小时使用位图, 否则使用散列集合; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * byte[] bytes = {1, 2, 8};
+	 * ArrayLookup lookup = ArrayUtil.lookup(bytes);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains((byte)2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(byte[] origin){
+		return ArrayLookup.ofIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 取值范围较小时使用位图, 否则使用散列集合; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * char[] chars = {'a', 'b', 'd'};
+	 * ArrayLookup lookup = ArrayUtil.lookup(chars);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains('a'));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(char[] origin){
+		return ArrayLookup.ofIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 取值范围较小时使用位图, 否则使用散列集合; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * short[] shorts = {1, 2, 8};
+	 * ArrayLookup lookup = ArrayUtil.lookup(shorts);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains((short)2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(short[] origin){
+		return ArrayLookup.ofIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 取值范围较小时使用位图, 否则使用散列集合; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {1001, 3, 70000};
+	 * ArrayLookup lookup = ArrayUtil.lookup(ints);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(70000));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(int[] origin){
+		return ArrayLookup.ofIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 取值范围较小时使用位图, 否则使用散列集合; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {1001L, 3L, 7000000000L};
+	 * ArrayLookup lookup = ArrayUtil.lookup(longs);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(7000000000L));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(long[] origin){
+		return ArrayLookup.ofIntegral(origin == null ? new long[0] : origin);
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 按数值散列, 0.0 等于 -0.0, NaN 不等于任何值; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * float[] floats = {1.5f, 2.5f, 8f};
+	 * ArrayLookup lookup = ArrayUtil.lookup(floats);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(2.5f));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(float[] origin){
+		return ArrayLookup.ofFloating(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由数组建立可重复使用的查找结构, 多次判定是否包含某个值时代替 contains 的逐个比较, 每次查找为 O(1),
+	 * 按数值散列, 0.0 等于 -0.0, NaN 不等于任何值; 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {1.5, 2.5, 8.0};
+	 * ArrayLookup lookup = ArrayUtil.lookup(doubles);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(2.5));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup lookup(double[] origin){
+		return ArrayLookup.ofFloating(origin == null ? new double[0] : origin);
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * byte[] bytes = {1, 2, 8};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(bytes);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains((byte)2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(byte[] origin){
+		return ArrayLookup.ofSortedIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * char[] chars = {'a', 'b', 'd'};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(chars);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains('a'));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(char[] origin){
+		return ArrayLookup.ofSortedIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * short[] shorts = {1, 2, 8};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(shorts);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains((short)2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(short[] origin){
+		return ArrayLookup.ofSortedIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1001, 70000};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(ints);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(70000));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(int[] origin){
+		return ArrayLookup.ofSortedIntegral(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1001L, 7000000000L};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(longs);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(7000000000L));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(long[] origin){
+		return ArrayLookup.ofSortedIntegral(origin == null ? new long[0] : origin.clone());
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * float[] floats = {1.5f, 2.5f, 8f};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(floats);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(2.5f));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(float[] origin){
+		return ArrayLookup.ofSortedFloating(widen(origin));
+	}
+	
+	/**
+	 * <p><des> 由已升序排序的数组建立二分查找结构, 每次查找为 O(log n), 不额外建立散列表; 数组未排序时抛出异常,
+	 * 特别的, 如果数组为null, 则查找结构不包含任何元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {1.5, 2.5, 8.0};
+	 * ArrayLookup lookup = ArrayUtil.sortedLookup(doubles);
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(lookup.contains(2.5));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ArrayLookup sortedLookup(double[] origin){
+		return ArrayLookup.ofSortedFloating(origin == null ? new double[0] : origin);
+	}
+	
+	/**
+	 * <p><des> 返还数组元素之和, 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 11</notes>
+	 * Testing.printlnObject(ArrayUtil.sum(ints));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static long sum(int[] origin){
+		if(origin == null){
+			return 0;
+		}
+		// independent partial sums break the dependency chain between additions
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0, unrolled = origin.length & ~3;
+		for(; i < unrolled; i += 4){
+			s0 += origin[i];
+			s1 += origin[i + 1];
+			s2 += origin[i + 2];
+			s3 += origin[i + 3];
+		}
+		for(; i < origin.length; i++){
+			s0 += origin[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * <p><des> 返还数组元素之和, 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 11</notes>
+	 * Testing.printlnObject(ArrayUtil.sum(longs));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static long sum(long[] origin){
+		if(origin == null){
+			return 0;
+		}
+		// independent partial sums break the dependency chain between additions
+		long s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0, unrolled = origin.length & ~3;
+		for(; i < unrolled; i += 4){
+			s0 += origin[i];
+			s1 += origin[i + 1];
+			s2 += origin[i + 2];
+			s3 += origin[i + 3];
+		}
+		for(; i < origin.length; i++){
+			s0 += origin[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * <p><des> 返还数组元素之和, 以 4 路部分和交替累加后合并, 结果可能与逐个顺序累加在末位上不同, 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 11.75</notes>
+	 * Testing.printlnObject(ArrayUtil.sum(doubles));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static double sum(double[] origin){
+		if(origin == null){
+			return 0;
+		}
+		// independent partial sums break the dependency chain between additions
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0, unrolled = origin.length & ~3;
+		for(; i < unrolled; i += 4){
+			s0 += origin[i];
+			s1 += origin[i + 1];
+			s2 += origin[i + 2];
+			s3 += origin[i + 3];
+		}
+		for(; i < origin.length; i++){
+			s0 += origin[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最小值; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 1</notes>
+	 * Testing.printlnObject(ArrayUtil.min(ints));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int min(int[] origin){
+		checkNotEmpty(origin);
+		int result = origin[0];
+		for(int item : origin){
+			if(item < result){
+				result = item;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最小值; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 1</notes>
+	 * Testing.printlnObject(ArrayUtil.min(longs));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static long min(long[] origin){
+		checkNotEmpty(origin);
+		long result = origin[0];
+		for(long item : origin){
+			if(item < result){
+				result = item;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最小值, 与 Math.min 逐个比较的结果一致: 包含 NaN 时返还 NaN, -0.0 小于 0.0; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 1.0</notes>
+	 * Testing.printlnObject(ArrayUtil.min(doubles));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static double min(double[] origin){
+		checkNotEmpty(origin);
+		double result = origin[0];
+		for(double item : origin){
+			if(item < result){
+				result = item;
+			}else if(item != item){
+				return item;
+			}
+		}
+		if(result == 0){
+			// the comparison does not tell -0.0 from 0.0
+			for(double item : origin){
+				if(item == 0 && Double.doubleToRawLongBits(item) != Double.doubleToRawLongBits(result)){
+					return -0.0;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最大值; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 7</notes>
+	 * Testing.printlnObject(ArrayUtil.max(ints));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int max(int[] origin){
+		checkNotEmpty(origin);
+		int result = origin[0];
+		for(int item : origin){
+			if(item > result){
+				result = item;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最大值; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 7</notes>
+	 * Testing.printlnObject(ArrayUtil.max(longs));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static long max(long[] origin){
+		checkNotEmpty(origin);
+		long result = origin[0];
+		for(long item : origin){
+			if(item > result){
+				result = item;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还数组元素的最大值, 与 Math.max 逐个比较的结果一致: 包含 NaN 时返还 NaN, 0.0 大于 -0.0; 数组为null或没有元素时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 7.25</notes>
+	 * Testing.printlnObject(ArrayUtil.max(doubles));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static double max(double[] origin){
+		checkNotEmpty(origin);
+		double result = origin[0];
+		for(double item : origin){
+			if(item > result){
+				result = item;
+			}else if(item != item){
+				return item;
+			}
+		}
+		if(result == 0){
+			// the comparison does not tell -0.0 from 0.0
+			for(double item : origin){
+				if(item == 0 && Double.doubleToRawLongBits(item) != Double.doubleToRawLongBits(result)){
+					return 0.0;
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还参数值在数组中第一次出现的位置, 不存在时返还 -1; 特别的, 如果数组为null, 则返还 -1 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(ArrayUtil.indexOf(ints, 7));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int indexOf(int[] origin, int target){
+		if(origin == null){
+			return -1;
+		}
+		for(int i = 0; i < origin.length; i++){
+			if(origin[i] == target){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * <p><des> 返还参数值在数组中第一次出现的位置, 不存在时返还 -1; 特别的, 如果数组为null, 则返还 -1 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(ArrayUtil.indexOf(longs, 7L));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int indexOf(long[] origin, long target){
+		if(origin == null){
+			return -1;
+		}
+		for(int i = 0; i < origin.length; i++){
+			if(origin[i] == target){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * <p><des> 返还参数值在数组中第一次出现的位置, 按 == 比较, NaN 不等于任何值, 不存在时返还 -1; 特别的, 如果数组为null, 则返还 -1 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(ArrayUtil.indexOf(doubles, 7.25));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int indexOf(double[] origin, double target){
+		if(origin == null){
+			return -1;
+		}
+		for(int i = 0; i < origin.length; i++){
+			if(origin[i] == target){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * <p><des> 返还数组中等于参数值的元素个数; 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 1</notes>
+	 * Testing.printlnObject(ArrayUtil.countEqual(ints, 7));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int countEqual(int[] origin, int target){
+		if(origin == null){
+			return 0;
+		}
+		int count = 0;
+		for(int item : origin){
+			if(item == target){
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * <p><des> 返还数组中等于参数值的元素个数; 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 1</notes>
+	 * Testing.printlnObject(ArrayUtil.countEqual(longs, 7L));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int countEqual(long[] origin, long target){
+		if(origin == null){
+			return 0;
+		}
+		int count = 0;
+		for(long item : origin){
+			if(item == target){
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * <p><des> 返还数组中等于参数值的元素个数, 按 == 比较, NaN 不等于任何值; 特别的, 如果数组为null, 则返还 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 1</notes>
+	 * Testing.printlnObject(ArrayUtil.countEqual(doubles, 7.25));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int countEqual(double[] origin, double target){
+		if(origin == null){
+			return 0;
+		}
+		int count = 0;
+		for(double item : origin){
+			if(item == target){
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * <p><des> 返还两个数组对应元素之和组成的新数组, 溢出时按整数运算回绕; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 4, 2, 14</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.add(ints, ints)));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static int[] add(int[] origin1, int[] origin2){
+		int[] result = new int[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] + origin2[i];
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还两个数组对应元素之和组成的新数组, 溢出时按整数运算回绕; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 4, 2, 14</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.add(longs, longs)));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static long[] add(long[] origin1, long[] origin2){
+		long[] result = new long[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] + origin2[i];
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还两个数组对应元素之和组成的新数组; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 7.0, 2.0, 14.5</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.add(doubles, doubles)));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static double[] add(double[] origin1, double[] origin2){
+		double[] result = new double[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] + origin2[i];
+		}
+		return result;
+	}
+	
+	/**
+	 * <p><des> 返还两个数组对应元素之积组成的新数组, 溢出时按整数运算回绕; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {3, 1, 7};
+	 * <notes>// 9, 1, 49</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.multiply(ints, ints)));
+	 * </pre></p>
+	 * @since 0.3.0
 	 */
-	public static boolean contains(float[] origin, float target){
-		if(origin == null){
-			return false;
-		}
-		for(float item : origin){
-			if(item == target) return true;
+	public static int[] multiply(int[] origin1, int[] origin2){
+		int[] result = new int[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] * origin2[i];
 		}
-		return false;
+		return result;
 	}
 	
 	/**
-	 * <p><des> 判定数组元素中是否包含参数值, 特别的, 如果数组为null, 则永远返回false </des></p>
+	 * <p><des> 返还两个数组对应元素之积组成的新数组, 溢出时按整数运算回绕; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
-	 * double[] dou = {1, 2.1, 5.3, 9, 8};
-	 * <notes>// true</notes>
-	 * Testing.printlnObject(ArrayUtil.contains(dou, 2.1));
-	 * <notes>// false</notes>
-	 * Testing.printlnObject(ArrayUtil.contains(dou, 3.1));
+	 * long[] longs = {3L, 1L, 7L};
+	 * <notes>// 9, 1, 49</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.multiply(longs, longs)));
 	 * </pre></p>
-	 * @since 0.1.0
+	 * @since 0.3.0
 	 */
-	public static boolean contains(double[] origin, double target){
-		if(origin == null){
-			return false;
-		}
-		for(double item : origin){
-			if(item == target) return true;
+	public static long[] multiply(long[] origin1, long[] origin2){
+		long[] result = new long[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] * origin2[i];
 		}
-		return false;
+		return result;
 	}
-
+	
 	/**
-	 * <p><des> 判定数组元素中是否包含参数值, 特别的, 如果数组为null, 则永远返回false </des></p>
+	 * <p><des> 返还两个数组对应元素之积组成的新数组; 两个数组长度不同时抛出异常; 特别的, null 视为没有元素的数组 </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
-	 * boolean[] bool = {true, true, true};
-	 * <notes>// true</notes>
-	 * Testing.printlnObject(ArrayUtil.contains(bool, true));
-	 * <notes>// false</notes>
-	 * Testing.printlnObject(ArrayUtil.contains(bool, false));
+	 * double[] doubles = {3.5, 1.0, 7.25};
+	 * <notes>// 12.25, 1.0, 52.5625</notes>
+	 * Testing.printlnObject(ArrayUtil.toSimpleString(ArrayUtil.multiply(doubles, doubles)));
 	 * </pre></p>
+	 * @since 0.3.0
 	 */
-	public static boolean contains(boolean[] origin, boolean target){
-		if(origin == null){
-			return false;
-		}
-		for(boolean item : origin){
-			if(item == target) return true;
+	public static double[] multiply(double[] origin1, double[] origin2){
+		double[] result = new double[checkSameLength(origin1, origin2)];
+		for(int i = 0; i < result.length; i++){
+			result[i] = origin1[i] * origin2[i];
 		}
-		return false;
+		return result;
 	}
 	
 	/**
@@ -476,9 +1254,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(Object[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -498,9 +1274,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(byte[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -520,9 +1294,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(char[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -542,9 +1314,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(short[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -564,9 +1334,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(int[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -586,9 +1354,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(long[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -608,9 +1374,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(float[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -630,9 +1394,7 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(double[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
 	}
 
 	/**
@@ -652,8 +1414,552 @@ public class ArrayUtil {
 	 * @since 0.1.0
 	 */
 	public static String toSimpleString(boolean[] origin){
-		if(origin == null) return "null";
-		String string = Arrays.toString(origin);
-		return string.substring(1, string.length() - 1);
+		return appendTo(new StringBuilder(origin == null ? 4 : origin.length * 8), origin, ", ").toString();
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * String[] strings = {"fan", "core", "util"};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: fan;core;util</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, strings, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, Object[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * String[] strings = {"fan", "core", "util"};
+	 * <notes>// fan|core|...(1 more)</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), strings, "|", "", "", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, Object[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * byte[] bytes = {1, 2, 7};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1;2;7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, bytes, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, byte[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * byte[] bytes = {1, 2, 7};
+	 * <notes>// [1|2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), bytes, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, byte[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * char[] chars = {'a', 'b', 'd'};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: a;b;d</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, chars, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, char[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * char[] chars = {'a', 'b', 'd'};
+	 * <notes>// [a|b|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), chars, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, char[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * short[] shorts = {1, 2, 7};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1;2;7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, shorts, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, short[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * short[] shorts = {1, 2, 7};
+	 * <notes>// [1|2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), shorts, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, short[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {1, 2, 7};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1;2;7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, ints, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, int[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ints = {1, 2, 7};
+	 * <notes>// [1|2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), ints, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, int[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {1, 2, 7};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1;2;7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, longs, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, long[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] longs = {1, 2, 7};
+	 * <notes>// [1|2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), longs, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, long[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * float[] floats = {1.1f, 2.2f, 7.7f};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1.1;2.2;7.7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, floats, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, float[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * float[] floats = {1.1f, 2.2f, 7.7f};
+	 * <notes>// [1.1|2.2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), floats, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, float[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {1.1, 2.2, 7.7};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: 1.1;2.2;7.7</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, doubles, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, double[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * double[] doubles = {1.1, 2.2, 7.7};
+	 * <notes>// [1.1|2.2|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), doubles, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, double[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 追加到参数1中并返还参数1; 基本类型直接追加, 不装箱也不产生临时字符串,
+	 * 参数1不是 StringBuilder 时分段写出。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * boolean[] booleans = {true, false, false};
+	 * StringBuilder builder = new StringBuilder("values: ");
+	 * <notes>// values: true;false;false</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(builder, booleans, ";"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, boolean[] origin, String separator){
+		return appendTo(out, origin, separator, "", "", -1);
+	}
+
+	/**
+	 * <p><des> 将数组元素以参数分隔符连接, 前后分别加上参数4, 5, 追加到参数1中并返还参数1。
+	 * 参数6为最多追加的元素个数, 超出时以 "...(n more)" 结尾, 负数表示不限。特别的, 如果数组为null, 则追加 "null" </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * boolean[] booleans = {true, false, false};
+	 * <notes>// [true|false|...(1 more)]</notes>
+	 * Testing.printlnObject(ArrayUtil.appendTo(new StringBuilder(), booleans, "|", "[", "]", 2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <A extends Appendable> A appendTo(A out, boolean[] origin, String separator, String prefix, String suffix, int maxElements){
+		StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : new StringBuilder();
+		if(origin == null){
+			builder.append("null");
+		}else{
+			int count = maxElements < 0 ? origin.length : Math.min(origin.length, maxElements);
+			builder.append(prefix);
+			for(int i = 0; i < count; i++){
+				if(i > 0){
+					builder.append(separator);
+				}
+				builder.append(origin[i]);
+				if(builder.length() >= APPEND_CHUNK && builder != out){
+					flush(out, builder);
+				}
+			}
+			appendRemaining(builder, origin.length - count, count > 0 ? separator : "");
+			builder.append(suffix);
+		}
+		if(builder != out){
+			flush(out, builder);
+		}
+		return out;
+	}
+
+	/** <p><des> 将数组扩展为 long[], 数组为null时返还空数组 </des></p> */
+	private static long[] widen(byte[] origin){
+		long[] values = new long[origin == null ? 0 : origin.length];
+		for(int i = 0; i < values.length; i++){
+			values[i] = origin[i];
+		}
+		return values;
+	}
+
+	/** <p><des> 将数组扩展为 long[], 数组为null时返还空数组 </des></p> */
+	private static long[] widen(char[] origin){
+		long[] values = new long[origin == null ? 0 : origin.length];
+		for(int i = 0; i < values.length; i++){
+			values[i] = origin[i];
+		}
+		return values;
+	}
+
+	/** <p><des> 将数组扩展为 long[], 数组为null时返还空数组 </des></p> */
+	private static long[] widen(short[] origin){
+		long[] values = new long[origin == null ? 0 : origin.length];
+		for(int i = 0; i < values.length; i++){
+			values[i] = origin[i];
+		}
+		return values;
+	}
+
+	/** <p><des> 将数组扩展为 long[], 数组为null时返还空数组 </des></p> */
+	private static long[] widen(int[] origin){
+		long[] values = new long[origin == null ? 0 : origin.length];
+		for(int i = 0; i < values.length; i++){
+			values[i] = origin[i];
+		}
+		return values;
+	}
+
+	/** <p><des> 将数组扩展为 double[], 数组为null时返还空数组 </des></p> */
+	private static double[] widen(float[] origin){
+		double[] values = new double[origin == null ? 0 : origin.length];
+		for(int i = 0; i < values.length; i++){
+			values[i] = origin[i];
+		}
+		return values;
+	}
+
+	/** <p><des> 数组为null或没有元素时抛出异常 </des></p> */
+	private static void checkNotEmpty(Object origin){
+		if(origin == null || Array.getLength(origin) == 0){
+			throw new ExecutetimeException("array must not be null or empty");
+		}
+	}
+
+	/** <p><des> 返还两个数组的长度, null 视为没有元素; 两个数组长度不同时抛出异常 </des></p> */
+	private static int checkSameLength(Object origin1, Object origin2){
+		int length1 = origin1 == null ? 0 : Array.getLength(origin1), length2 = origin2 == null ? 0 : Array.getLength(origin2);
+		if(length1 != length2){
+			throw new ExecutetimeException("array lengths differ: " + length1 + " and " + length2);
+		}
+		return length1;
+	}
+
+	/** <p><des> 追加被截断的元素个数 </des></p> */
+	private static void appendRemaining(StringBuilder builder, int remaining, String separator){
+		if(remaining > 0){
+			builder.append(separator).append("...(").append(remaining).append(" more)");
+		}
+	}
+
+	/** <p><des> 将缓冲的字符写出到参数1, 并清空缓冲 </des></p> */
+	private static void flush(Appendable out, StringBuilder builder){
+		try {
+			out.append(builder);
+		} catch (IOException e) {
+			throw new ExecutetimeException(e);
+		}
+		builder.setLength(0);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,267 @@
+package fan.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> POJO 与 Map 相互转换工具类。转换按类编译的字段访问计划进行, 不再逐次查找字段
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-18
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class BeanUtil {
+
+	private BeanUtil(){}
+
+	// nested key separator
+	private static final char SEPARATOR = '.';
+
+	/**
+	 * <p><des> 将对象的实例字段(包括父类)转换为Map表示, 键的顺序与 FieldUtil.getInstanceFields 一致, 特别的, 若参数为null, 则返还null </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 *
+	 * public class User {
+	 *
+	 *     private int id;
+	 *     private String name;
+	 *     private Address address;
+	 *
+	 * }
+	 *
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Object&gt; map = BeanUtil.toMap(user);
+	 * Testing.printlnObject(map);
+	 * <b><em>output look like：</em></b>
+	 * <output>id : 1
+	 * name : fancore
+	 * address : fan.core.test.model.Address@1b6d3586</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.BeanUtil#toMap(Object, boolean)
+	 */
+	public static Map<String, Object> toMap(Object bean){
+		return toMap(bean, false);
+	}
+
+	/**
+	 * <p><des> 将对象的实例字段(包括父类)转换为Map表示, 若参数2为true, 则嵌套的 POJO 字段将被展开, 以 "字段.嵌套字段" 作为键 </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 *
+	 * public class User {
+	 *
+	 *     private int id;
+	 *     private String name;
+	 *     private Address address;
+	 *
+	 * }
+	 *
+	 * public class Address {
+	 *
+	 *     private String city;
+	 *     private String street;
+	 *
+	 * }
+	 *
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Object&gt; map = BeanUtil.toMap(user, true);
+	 * Testing.printlnObject(map);
+	 * <b><em>output look like：</em></b>
+	 * <output>id : 1
+	 * name : fancore
+	 * address.city : 广州
+	 * address.street : 天河路</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static Map<String, Object> toMap(Object bean, boolean flatten){
+		if(bean == null){
+			return null;
+		}
+		FieldPlan plan = FieldPlan.of(bean.getClass());
+		Map<String, Object> map = new LinkedHashMap<String, Object>(capacity(plan.size()));
+		if(flatten){
+			flatten(bean, plan, null, map, new IdentityHashMap<Object, Object>());
+		}else{
+			for(int i = 0; i < plan.size(); i++){
+				map.put(plan.names[i], plan.get(bean, i));
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * <p><des> 以Map创建参数2所表示类的一个实例, 类需要有无参构造方法。Map的值按字段类型转换, 键支持 "字段.嵌套字段" 的形式, 不存在的字段将被忽略 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Object&gt; map = new HashMap&lt;String, Object&gt;();
+	 * map.put("id", "1");
+	 * map.put("name", "fancore");
+	 * map.put("address.city", "广州");
+	 * User user = BeanUtil.toBean(map, User.class);
+	 * Testing.printlnObject(user);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.BeanUtil#populate(Object, Map)
+	 */
+	public static <E> E toBean(Map<String, ?> map, Class<E> clazz){
+		if(map == null){
+			return null;
+		}
+		E bean = ClassUtil.getInstance(clazz);
+		populate(bean, map);
+		return bean;
+	}
+
+	/**
+	 * <p><des> 以Map填充对象的字段, 值的转换规则如下, 不存在的字段将被忽略:
+	 * 字符串按 ConvertUtil.objectValue 转换; 数值在各数值类型间转换; Map 值转换为嵌套的 POJO;
+	 * 键 "字段.嵌套字段" 填充嵌套 POJO 的字段, 嵌套对象为null时将以无参构造方法创建, 字段不是 POJO(如 Map, 接口类型)时抛出 ExecutetimeException; null 不会赋给基本类型字段 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Object&gt; patch = new HashMap&lt;String, Object&gt;();
+	 * patch.put("name", "fancy");
+	 * patch.put("address.street", "体育西路");
+	 * BeanUtil.populate(user, patch);
+	 * Testing.printlnObject(user);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static void populate(Object bean, Map<String, ?> map){
+		if(bean == null || map == null){
+			return ;
+		}
+		FieldPlan plan = FieldPlan.of(bean.getClass());
+		for(Map.Entry<String, ?> entry : map.entrySet()){
+			setValue(bean, plan, entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * <p><des> 转换值为参数指定的类型, 转换规则与 populate 一致 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// 10086</notes>
+	 * Testing.printlnObject(BeanUtil.convertValue("10086", int.class));
+	 * <notes>// 12</notes>
+	 * Testing.printlnObject(BeanUtil.convertValue(12.7, long.class));
+	 * <notes>// 12.50, BigInteger and Date (including java.sql.Timestamp) are parsed from strings as well</notes>
+	 * Testing.printlnObject(BeanUtil.convertValue("12.50", BigDecimal.class));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ConvertUtil#objectValue(String, Class)
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static Object convertValue(Object value, Class<?> type){
+		if(value == null){
+			return null;
+		}
+		Class<?> target = type.isPrimitive() ? ConvertUtil.primitiveBoxerMap.get(type) : type;
+		if(target.isInstance(value)){
+			return value;
+		}
+		if(value instanceof String){
+			if(type.isEnum()){
+				return Enum.valueOf((Class<? extends Enum>) type, (String) value);
+			}
+			return stringValue((String) value, type, target);
+		}
+		if(target == String.class){
+			return value.toString();
+		}
+		if(value instanceof Number){
+			Number number = (Number) value;
+			if(target == Integer.class) return number.intValue();
+			if(target == Long.class) return number.longValue();
+			if(target == Double.class) return number.doubleValue();
+			if(target == Float.class) return number.floatValue();
+			if(target == Short.class) return number.shortValue();
+			if(target == Byte.class) return number.byteValue();
+			if(target == BigDecimal.class) return new BigDecimal(number.toString());
+			if(target == BigInteger.class) return new BigDecimal(number.toString()).toBigInteger();
+			if(target == Date.class) return new Date(number.longValue());
+			if(target == Boolean.class) return number.intValue() != 0;
+		}
+		if(value instanceof Map && FieldPlan.isBean(type)){
+			return toBean((Map<String, ?>) value, type);
+		}
+		throw new ExecutetimeException(StringUtil.parsePlaceholder("can not convert value of ? to ?",
+			value.getClass().getSimpleName(), type.getSimpleName()));
+	}
+
+	/** <p><des> 转换字符串, BigDecimal, BigInteger 及 Date 的子类(如 java.sql.Timestamp)在 ConvertUtil.objectValue 之前处理 </des></p> */
+	private static Object stringValue(String value, Class<?> type, Class<?> target){
+		try {
+			if(target == BigDecimal.class) return new BigDecimal(value.trim());
+			if(target == BigInteger.class) return new BigDecimal(value.trim()).toBigInteger();
+			if(target != Date.class && Date.class.isAssignableFrom(target)){
+				Date date = DateUtil.parseDate(value, DateUtil.getPattern(value));
+				return target.getConstructor(long.class).newInstance(date.getTime());
+			}
+		} catch (ExecutetimeException e) {
+			throw e;
+		} catch (Exception e) {
+			// the value is concatenated, placeholder replacement would read $ and \ in it as group references
+			throw new ExecutetimeException("can not convert \"" + value + "\" to " + type.getSimpleName() + ": " + e);
+		}
+		Object result = ConvertUtil.objectValue(value, type);
+		if(!target.isInstance(result)){
+			throw new ExecutetimeException(StringUtil.parsePlaceholder("can not convert String to ?", type.getSimpleName()));
+		}
+		return result;
+	}
+
+	/** <p><des> 展开嵌套的 POJO </des></p> */
+	private static void flatten(Object bean, FieldPlan plan, String prefix, Map<String, Object> map, Map<Object, Object> visiting){
+		visiting.put(bean, bean);
+		for(int i = 0; i < plan.size(); i++){
+			String key = prefix == null ? plan.names[i] : prefix + SEPARATOR + plan.names[i];
+			Object value = plan.get(bean, i);
+			if(value != null && FieldPlan.isBean(value.getClass()) && !visiting.containsKey(value)){
+				flatten(value, FieldPlan.of(value.getClass()), key, map, visiting);
+			}else{
+				map.put(key, value);
+			}
+		}
+		visiting.remove(bean);
+	}
+
+	/** <p><des> 设置字段值, 键可以是 "字段.嵌套字段" 的形式 </des></p> */
+	private static void setValue(Object bean, FieldPlan plan, String key, Object value){
+		int separator = key.indexOf(SEPARATOR);
+		String name = separator == -1 ? key : key.substring(0, separator);
+		int index = plan.indexOf(name);
+		if(index == -1){
+			return ; // ignore the unknown field
+		}
+		if(separator != -1){
+			Object nested = plan.get(bean, index);
+			if(!FieldPlan.isBean(nested == null ? plan.types[index] : nested.getClass())){
+				throw new ExecutetimeException(StringUtil.parsePlaceholder("can not set nested key ? on field ? of type ?",
+					key, name, (nested == null ? plan.types[index] : nested.getClass()).getSimpleName()));
+			}
+			if(nested == null){
+				nested = ClassUtil.getInstance(plan.types[index]);
+				plan.set(bean, index, nested);
+			}
+			setValue(nested, FieldPlan.of(nested.getClass()), key.substring(separator + 1), value);
+			return ;
+		}
+		if(value == null && plan.kinds[index] != FieldPlan.OBJECT){
+			return ; // null can not be assigned to a primitive field
+		}
+		plan.set(bean, index, convertValue(value, plan.types[index]));
+	}
+
+	/** <p><des> 容纳参数指定个数的键值对而不需扩容的初始容量 </des></p> */
+	private static int capacity(int size){
+		return size < 3 ? size + 1 : (int) (size / .75f) + 1;
+	}
+
+}
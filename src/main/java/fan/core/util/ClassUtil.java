@@ -1,9 +1,21 @@
 package fan.core.util;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import fan.core.exception.ExecutetimeException;
 /**
  * <p> <b> @描述：</b> Class常用操作工具类
@@ -16,36 +28,111 @@ public class ClassUtil {
 
 	private ClassUtil(){}
 	
+	// class name lookups, scoped by class loader
+	private static final ReferenceCache<Object, Map<String, WeakReference<Class<?>>>> classNameCache = new ReferenceCache<Object, Map<String, WeakReference<Class<?>>>>();
+	// stands for the bootstrap class loader, which is null
+	private static final Object BOOTSTRAP_LOADER = new Object();
+	// no-arg constructors set accessible, cached by class, access is checked on each call
+	private static final ReferenceCache<Class<?>, Constructor<?>> constructorCache = new ReferenceCache<Class<?>, Constructor<?>>();
+	// superclass generic type arguments, cached by class
+	private static final ReferenceCache<Class<?>, Class<?>[]> genericSuperclassCache = new ReferenceCache<Class<?>, Class<?>[]>();
+	// generic type arguments of any supertype, cached by class and generic supertype
+	private static final ReferenceCache<Class<?>, Map<Class<?>, Class<?>[]>> genericTypeCache = new ReferenceCache<Class<?>, Map<Class<?>, Class<?>[]>>();
+	
 	/**
-	 * <p><des> 返还一个新的该Class的一个实例 </des></p>
+	 * <p><des> 返还一个新的该Class的一个实例。无参构造方法在首次调用后按类缓存(不阻止类加载器被回收), 之后的调用不再查找构造方法;
+	 * 与 Class.newInstance 一样, 类或无参构造方法不是 public 时抛出异常, 如工具类, 单例类 </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
 	 * Animal animal = ClassUtil.getInstance(Animal.class);
 	 * </pre></p>
 	 * @since 0.1.0
+	 * @see fan.core.util.ClassUtil#getInstance(Class, boolean)
 	 */
 	public static <E> E getInstance(Class<E> clazz){
-		try {
-			return clazz.newInstance();
-		} catch (Throwable e) {
-			throw new ExecutetimeException(e);
+		return getInstance(clazz, false);
+	}
+	
+	/**
+	 * <p><des> 返还一个新的该Class的一个实例, 参数2为true时也调用非 public 的无参构造方法(如 private 构造方法), 否则与 getInstance(Class) 一致 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// the constructor of Animal is private</notes>
+	 * Animal animal = ClassUtil.getInstance(Animal.class, true);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <E> E getInstance(Class<E> clazz, boolean nonPublic){
+		return newInstance(checkAccess(getConstructor(clazz), nonPublic));
+	}
+	
+	/**
+	 * <p><des> 返还参数2指定个数的该Class的新实例, 可用于对象池的预先填充 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;Animal&gt; animals = ClassUtil.getInstances(Animal.class, 64);
+	 * Testing.printlnObject(animals.size());
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ClassUtil#getInstance(Class)
+	 */
+	public static <E> List<E> getInstances(Class<E> clazz, int size){
+		if(size < 0){
+			throw new ExecutetimeException("size must not be negative: " + size);
+		}
+		Constructor<E> constructor = checkAccess(getConstructor(clazz), false);
+		List<E> instances = new ArrayList<E>(size);
+		for(int i = 0; i < size; i++){
+			instances.add(newInstance(constructor));
 		}
+		return instances;
 	}
 	
 	/**
-	 * <p><des> 返还参数指定的全类名表示的一个Class实例 </des></p>
+	 * <p><des> 返还参数指定的全类名表示的一个Class实例。查找结果按类加载器缓存(弱引用, 不阻止类加载器被回收) </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
 	 * Class&lt;?&gt; clazz = ClassUtil.forName("fan.core.util.ClassUtil");
 	 * </pre></p>
 	 * @since 0.1.0
+	 * @see fan.core.util.ClassUtil#forName(String, ClassLoader)
 	 */
 	public static Class<?> forName(String className){
-		try {
-			return Class.forName(className);
-		} catch (ClassNotFoundException e) {
-			throw new ExecutetimeException(e);
+		return forName(className, ClassUtil.class.getClassLoader());
+	}
+	
+	/**
+	 * <p><des> 使用参数指定的类加载器, 返还全类名表示的一个Class实例。查找结果按类加载器缓存(弱引用, 不阻止类加载器被回收) </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ClassLoader loader = Thread.currentThread().getContextClassLoader();
+	 * Class&lt;?&gt; clazz = ClassUtil.forName("fan.core.util.ClassUtil", loader);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static Class<?> forName(String className, ClassLoader classLoader){
+		Object loaderKey = classLoader == null ? BOOTSTRAP_LOADER : classLoader;
+		Map<String, WeakReference<Class<?>>> classes = classNameCache.get(loaderKey);
+		if(classes == null){
+			classes = classNameCache.putIfAbsent(loaderKey, new ConcurrentHashMap<String, WeakReference<Class<?>>>());
 		}
+		long start = ReflectionMetrics.start();
+		WeakReference<Class<?>> reference = classes.get(className);
+		Class<?> clazz = reference == null ? null : reference.get();
+		if(clazz == null){
+			try {
+				clazz = Class.forName(className, true, classLoader);
+			} catch (ClassNotFoundException e) {
+				ReflectionMetrics.exceptionMiss(className, "class:" + className, start);
+				ReflectionMetrics.miss(className, start);
+				throw new ExecutetimeException(e);
+			}
+			classes.put(className, new WeakReference<Class<?>>(clazz));
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
+		}
+		return clazz;
 	}
 	
 	/**
@@ -166,7 +253,8 @@ public class ClassUtil {
 
 	
 	/**
-	 * <p><des> 获取泛型(位置由参数指定, 索引从0开始)参数化类型 </des></p>
+	 * <p><des> 获取泛型(位置由参数指定, 索引从0开始)参数化类型。沿父类链向上查找第一个参数化的父类, 
+	 * 因此非泛型的中间子类(如 class BigParrot extends Parrot)同样适用, 解析结果按类缓存(不阻止类加载器被回收) </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
 	 * public class Pet &lt;E&gt; {
@@ -200,20 +288,63 @@ public class ClassUtil {
 	 * class fan.core.test.model.Parrot
 	 * </pre></p>
 	 * @since 0.1.0
+	 * @see fan.core.util.ClassUtil#getGenericType(Class, Class, int)
 	 */
 	public static Class<?> getSuperclassGenericType(Class<?> clazz, int index){
-		if(isInstanceOf(Object.class, clazz.getSuperclass())){
-			throw new ExecutetimeException("clazz must has a superclass of generic type");
-		}
-		try {
-			Type type = clazz.getGenericSuperclass();
-	        Type[] parameterizedType = ((ParameterizedType) type).getActualTypeArguments();
-	        return (Class<?>) parameterizedType[index];
-		} catch (Throwable e) {
-			throw new ExecutetimeException(e);
+		long start = ReflectionMetrics.start();
+		Class<?>[] arguments = genericSuperclassCache.get(clazz);
+		if(arguments == null){
+			arguments = genericSuperclassCache.putIfAbsent(clazz, resolveSuperclassGenericTypes(clazz));
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
 		}
+		return genericTypeArgument(arguments, index, clazz);
 	}
 	
+	/**
+	 * <p><des> 获取参数1所表示的类在继承体系(父类及接口, 支持多级)中, 参数2所表示的泛型类或泛型接口的参数化类型(位置由参数3指定, 索引从0开始), 结果按类缓存(不阻止类加载器被回收) </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 * public interface Repository &lt;E, ID&gt; {}
+	 * 
+	 * public class BaseDao &lt;E&gt; implements Repository&lt;E, Long&gt; {}
+	 * 
+	 * public class PetDao &lt;E extends Pet&lt;E&gt;&gt; extends BaseDao&lt;E&gt; {}
+	 * 
+	 * public class ParrotDao extends PetDao&lt;Parrot&gt; {}
+	 * 
+	 * <b><em>e.g.</em></b>
+	 * <notes>// class fan.core.test.model.Parrot</notes>
+	 * Testing.printlnObject(ClassUtil.getGenericType(ParrotDao.class, Repository.class, 0));
+	 * <notes>// class java.lang.Long</notes>
+	 * Testing.printlnObject(ClassUtil.getGenericType(ParrotDao.class, Repository.class, 1));
+	 * <notes>// class fan.core.test.model.Parrot</notes>
+	 * Testing.printlnObject(ClassUtil.getGenericType(ParrotDao.class, BaseDao.class, 0));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ClassUtil#getSuperclassGenericType(Class, int)
+	 */
+	public static Class<?> getGenericType(Class<?> clazz, Class<?> genericClass, int index){
+		long start = ReflectionMetrics.start();
+		Map<Class<?>, Class<?>[]> resolved = genericTypeCache.get(clazz);
+		if(resolved == null){
+			resolved = genericTypeCache.putIfAbsent(clazz, new ConcurrentHashMap<Class<?>, Class<?>[]>(4));
+		}
+		Class<?>[] arguments = resolved.get(genericClass);
+		if(arguments == null){
+			Type[] types = resolveGenericTypes(clazz, genericClass, new HashMap<TypeVariable<?>, Type>());
+			if(types == null){
+				throw new ExecutetimeException(clazz.getName() + " is not a parameterized subtype of " + genericClass.getName());
+			}
+			arguments = toClasses(types);
+			resolved.put(genericClass, arguments);
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
+		}
+		return genericTypeArgument(arguments, index, clazz);
+	}
 	/**
 	 * <p><des> 获取值的实际类型 </des></p>
 	 * <p><pre>
@@ -263,4 +394,150 @@ public class ClassUtil {
 		return obj.getClass().getSimpleName();
 	}
 	
+	/** <p><des> 获取可访问的无参构造方法 </des></p> */
+	@SuppressWarnings("unchecked")
+	private static <E> Constructor<E> getConstructor(Class<E> clazz){
+		long start = ReflectionMetrics.start();
+		Constructor<E> constructor = (Constructor<E>) constructorCache.get(clazz);
+		if(constructor == null){
+			try {
+				constructor = clazz.getDeclaredConstructor();
+				constructor.setAccessible(true);
+			} catch (Throwable e) {
+				ReflectionMetrics.exceptionMiss(clazz, "constructor:<init>()", start);
+				ReflectionMetrics.miss(clazz, start);
+				throw new ExecutetimeException(e);
+			}
+			constructor = (Constructor<E>) constructorCache.putIfAbsent(clazz, constructor);
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
+		}
+		return constructor;
+	}
+	
+	/** <p><des> 类及构造方法都是 public 或参数2为true时返还构造方法, 否则抛出异常 </des></p> */
+	private static <E> Constructor<E> checkAccess(Constructor<E> constructor, boolean nonPublic){
+		if(!nonPublic && !(Modifier.isPublic(constructor.getModifiers()) && Modifier.isPublic(constructor.getDeclaringClass().getModifiers()))){
+			throw new ExecutetimeException(new IllegalAccessException(constructor.getDeclaringClass().getName()
+				+ " has no public constructor without arguments, use getInstance(Class, true) to call it anyway"));
+		}
+		return constructor;
+	}
+	
+	/** <p><des> 调用构造方法创建实例 </des></p> */
+	private static <E> E newInstance(Constructor<E> constructor){
+		try {
+			return constructor.newInstance();
+		} catch (InvocationTargetException e) {
+			throw new ExecutetimeException(e.getTargetException());
+		} catch (Throwable e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+	
+	/** <p><des> 沿父类链查找第一个参数化的父类, 并解析其类型参数 </des></p> */
+	private static Class<?>[] resolveSuperclassGenericTypes(Class<?> clazz){
+		Class<?> current = clazz;
+		while(current != null && current != Object.class){
+			Type superType = current.getGenericSuperclass();
+			if(superType instanceof ParameterizedType){
+				return toClasses(((ParameterizedType) superType).getActualTypeArguments());
+			}
+			current = current.getSuperclass();
+		}
+		throw new ExecutetimeException("clazz must has a superclass of generic type");
+	}
+	
+	/** <p><des> 深度优先在父类及接口中查找目标泛型类型, 并按子类绑定的类型变量解析其类型参数 </des></p> */
+	private static Type[] resolveGenericTypes(Class<?> clazz, Class<?> genericClass, Map<TypeVariable<?>, Type> bindings){
+		List<Type> superTypes = new ArrayList<Type>();
+		if(clazz.getGenericSuperclass() != null){
+			superTypes.add(clazz.getGenericSuperclass());
+		}
+		superTypes.addAll(Arrays.asList(clazz.getGenericInterfaces()));
+		for(Type superType : superTypes){
+			Class<?> raw;
+			Map<TypeVariable<?>, Type> next = new HashMap<TypeVariable<?>, Type>();
+			if(superType instanceof ParameterizedType){
+				ParameterizedType parameterized = (ParameterizedType) superType;
+				raw = (Class<?>) parameterized.getRawType();
+				Type[] arguments = parameterized.getActualTypeArguments();
+				Type[] types = new Type[arguments.length];
+				for(int i = 0; i < arguments.length; i++){
+					types[i] = resolveType(arguments[i], bindings);
+				}
+				if(raw == genericClass){
+					return types;
+				}
+				bind(raw, types, next);
+			}else{
+				raw = (Class<?>) superType;
+				if(raw == genericClass){
+					return raw.getTypeParameters();
+				}
+			}
+			Type[] found = resolveGenericTypes(raw, genericClass, next);
+			if(found != null){
+				return found;
+			}
+		}
+		return null;
+	}
+	
+	/** <p><des> 绑定原始类型的类型变量与实际类型 </des></p> */
+	private static void bind(Class<?> raw, Type[] types, Map<TypeVariable<?>, Type> bindings){
+		TypeVariable<?>[] variables = raw.getTypeParameters();
+		for(int i = 0; i < variables.length && i < types.length; i++){
+			bindings.put(variables[i], types[i]);
+		}
+	}
+	
+	/** <p><des> 以已绑定的类型变量解析类型 </des></p> */
+	private static Type resolveType(Type type, Map<TypeVariable<?>, Type> bindings){
+		if(type instanceof TypeVariable){
+			Type bound = bindings.get(type);
+			return bound == null ? type : bound;
+		}
+		return type;
+	}
+	
+	/** <p><des> 将类型转换为Class表示, 不能确定的类型变量以null表示 </des></p> */
+	private static Class<?>[] toClasses(Type[] types){
+		Class<?>[] classes = new Class<?>[types.length];
+		for(int i = 0; i < types.length; i++){
+			classes[i] = toClass(types[i]);
+		}
+		return classes;
+	}
+	
+	/** <p><des> 将类型转换为Class表示 </des></p> */
+	private static Class<?> toClass(Type type){
+		if(type instanceof Class){
+			return (Class<?>) type;
+		}
+		if(type instanceof ParameterizedType){
+			return toClass(((ParameterizedType) type).getRawType());
+		}
+		if(type instanceof GenericArrayType){
+			Class<?> component = toClass(((GenericArrayType) type).getGenericComponentType());
+			return component == null ? null : Array.newInstance(component, 0).getClass();
+		}
+		if(type instanceof WildcardType){
+			return toClass(((WildcardType) type).getUpperBounds()[0]);
+		}
+		return null; // unresolved type variable
+	}
+	
+	/** <p><des> 获取指定位置的类型参数 </des></p> */
+	private static Class<?> genericTypeArgument(Class<?>[] arguments, int index, Class<?> clazz){
+		if(index < 0 || index >= arguments.length){
+			throw new ExecutetimeException(new IndexOutOfBoundsException("index: " + index + ", generic type arguments size: " + arguments.length));
+		}
+		if(arguments[index] == null){
+			throw new ExecutetimeException("generic type argument " + index + " of " + clazz.getName() + " can not be resolved");
+		}
+		return arguments[index];
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+package fan.core.util;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.regex.Pattern;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 对象深拷贝工具类。按类编译的字段访问计划逐字段复制对象图, 以替代序列化或 Json 往返的深拷贝方式
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-20
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class CloneUtil {
+
+	private CloneUtil(){}
+
+	// prefix of the wrapper classes returned by Collections.unmodifiableList, synchronizedMap, singleton and so on
+	private static final String COLLECTIONS_VIEW = "java.util.Collections$";
+	// the fixed-size list returned by Arrays.asList
+	private static final String ARRAYS_VIEW = "java.util.Arrays$ArrayList";
+	// immutable types, shared instead of copied
+	private static final Set<Class<?>> immutableTypes = new HashSet<Class<?>>();
+	// java.time types, looked up by name so that older runtimes still load this class
+	private static final String[] JAVA_TIME_TYPES = {
+		"Instant", "LocalDate", "LocalTime", "LocalDateTime", "ZonedDateTime", "OffsetDateTime", "OffsetTime",
+		"Duration", "Period", "Year", "YearMonth", "MonthDay", "ZoneOffset", "ZoneRegion"
+	};
+	// LinkedHashMap.accessOrder, null when the runtime does not allow reading it
+	private static final Field ACCESS_ORDER = accessOrderField();
+
+	/**
+	 * <p><des> 深拷贝对象。循环引用与共享引用在拷贝中保持相同的结构;
+	 * 不可变类型(String, 基本类型的包装类型, BigDecimal, BigInteger, 枚举(包括 Code 枚举), File, URI, URL, Pattern, java.time 类型等)直接共享不复制;
+	 * 数组与集合逐元素复制, 复制的容器与原容器类型相同: EnumMap, EnumSet, Arrays.asList 及 Collections 的不可修改, 同步视图按原方式重建,
+	 * SortedSet, SortedMap, PriorityQueue 保留比较器, LinkedHashMap 保留访问顺序;
+	 * 其余容器需要有公共无参构造方法(有比较器时需要以 Comparator 为参数的构造方法), 否则抛出 ExecutetimeException;
+	 * 其余 java.* 及 javax.* 的类型不反射其字段: 实现 Cloneable 的以 clone 复制(如 Calendar), 否则直接共享;
+	 * 其余对象需要有无参构造方法 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * User origin = cache.get(id);
+	 * User copy = CloneUtil.deepCopy(origin);
+	 * <notes>// false</notes>
+	 * Testing.printlnObject(origin.getAddress() == copy.getAddress());
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CloneUtil#deepCopy(Object, int)
+	 */
+	public static <E> E deepCopy(E object){
+		return deepCopy(object, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * <p><des> 深拷贝对象, 复制的层次由参数2指定, 超出层次的对象直接共享引用。
+	 * 0 表示不复制, 1 表示只复制对象本身(即浅拷贝), 以此类推 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// copy user and its fields, but share the objects referenced by the fields of its fields</notes>
+	 * User copy = CloneUtil.deepCopy(user, 2);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> E deepCopy(E object, int maxDepth){
+		if(maxDepth < 0){
+			throw new ExecutetimeException("maxDepth must not be negative: " + maxDepth);
+		}
+		return (E) new Copier(maxDepth).copy(object, 0);
+	}
+
+	/**
+	 * <p><des> 判定类型是否为不可变类型, 不可变类型的对象在深拷贝中直接共享 </des></p>
+	 * @since 0.3.0
+	 */
+	public static boolean isImmutable(Class<?> type){
+		return type.isPrimitive() || type.isEnum() || immutableTypes.contains(type)
+			|| (Enum.class.isAssignableFrom(type) && type.getSuperclass().isEnum()) || InetAddress.class.isAssignableFrom(type);
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一次深拷贝的上下文, 记录已复制对象的映射
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-20
+	 */
+	private static class Copier {
+
+		// origin -> copy
+		private final Map<Object, Object> copied = new IdentityHashMap<Object, Object>();
+		private final int maxDepth;
+
+		Copier(int maxDepth){
+			this.maxDepth = maxDepth;
+		}
+
+		Object copy(Object origin, int depth){
+			if(origin == null || depth >= maxDepth){
+				return origin;
+			}
+			Class<?> type = origin.getClass();
+			if(isImmutable(type)){
+				return origin;
+			}
+			Object copy = copied.get(origin);
+			if(copy != null){
+				return copy;
+			}
+			if(type.isArray()){
+				return copyArray(origin, type, depth);
+			}
+			if(origin instanceof Date){
+				return register(origin, ((Date) origin).clone());
+			}
+			if(origin instanceof Collection && !FieldPlan.isBean(type)){
+				return copyCollection((Collection<?>) origin, depth);
+			}
+			if(origin instanceof Map && !FieldPlan.isBean(type)){
+				return copyMap((Map<?, ?>) origin, depth);
+			}
+			if(type.getName().startsWith("java.") || type.getName().startsWith("javax.")){
+				return register(origin, copyPlatform(origin, type));
+			}
+			return copyFields(origin, type, depth);
+		}
+
+		private Object copyArray(Object origin, Class<?> type, int depth){
+			int length = Array.getLength(origin);
+			Class<?> componentType = type.getComponentType();
+			Object copy = Array.newInstance(componentType, length);
+			register(origin, copy);
+			if(componentType.isPrimitive()){
+				System.arraycopy(origin, 0, copy, 0, length);
+			}else{
+				Object[] source = (Object[]) origin, target = (Object[]) copy;
+				for(int i = 0; i < length; i++){
+					target[i] = copy(source[i], depth + 1);
+				}
+			}
+			return copy;
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object copyCollection(Collection<?> origin, int depth){
+			Class<?> type = origin.getClass();
+			if(origin instanceof EnumSet){
+				return register(origin, ((EnumSet) origin).clone()); // enum elements are shared
+			}
+			Collection copy;
+			if(type.getName().startsWith(COLLECTIONS_VIEW)){
+				copy = plainCollection(origin);
+				register(origin, wrapCollection(type, copy));
+			}else if(type.getName().equals(ARRAYS_VIEW)){
+				Object[] elements = new Object[origin.size()];
+				register(origin, Arrays.asList(elements));
+				int i = 0;
+				for(Object item : origin){
+					elements[i++] = copy(item, depth + 1);
+				}
+				return copied.get(origin);
+			}else{
+				copy = (Collection) newContainer(type, comparator(origin), origin.size());
+				register(origin, copy);
+			}
+			for(Object item : origin){
+				copy.add(copy(item, depth + 1));
+			}
+			return copied.get(origin);
+		}
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Object copyMap(Map<?, ?> origin, int depth){
+			Class<?> type = origin.getClass();
+			Map copy;
+			if(origin instanceof EnumMap){
+				copy = new EnumMap((EnumMap) origin); // enum keys are shared, values copied below
+				register(origin, copy);
+			}else if(type.getName().startsWith(COLLECTIONS_VIEW)){
+				copy = origin instanceof SortedMap ? new TreeMap(((SortedMap) origin).comparator()) : new LinkedHashMap(origin.size() * 2);
+				register(origin, wrapMap(type, copy));
+			}else if(type == LinkedHashMap.class && isAccessOrder((LinkedHashMap) origin)){
+				copy = new LinkedHashMap(origin.size() * 2, 0.75f, true);
+				register(origin, copy);
+			}else{
+				copy = (Map) newContainer(type, origin instanceof SortedMap ? ((SortedMap) origin).comparator() : null, origin.size());
+				register(origin, copy);
+			}
+			for(Map.Entry<?, ?> entry : origin.entrySet()){
+				copy.put(copy(entry.getKey(), depth + 1), copy(entry.getValue(), depth + 1));
+			}
+			return copied.get(origin);
+		}
+
+		private Object copyFields(Object origin, Class<?> type, int depth){
+			Object copy = ClassUtil.getInstance(type);
+			register(origin, copy);
+			FieldPlan plan = FieldPlan.of(type);
+			for(int i = 0; i < plan.size(); i++){
+				if(plan.kinds[i] == FieldPlan.OBJECT){
+					plan.set(copy, i, copy(plan.get(origin, i), depth + 1));
+				}else{
+					plan.copyPrimitive(origin, copy, i);
+				}
+			}
+			return copy;
+		}
+
+		/** <p><des> java.* 中的非容器类型: Cloneable 的以公共 clone 方法复制, 否则视为不可变而共享 </des></p> */
+		private Object copyPlatform(Object origin, Class<?> type){
+			if(origin instanceof Cloneable){
+				try {
+					return type.getMethod("clone").invoke(origin);
+				} catch (Exception e) {
+					// no accessible clone, share it like an immutable value
+				}
+			}
+			return origin;
+		}
+
+		/** <p><des> 集合的比较器: SortedSet, PriorityQueue, PriorityBlockingQueue, 其他集合返还null </des></p> */
+		@SuppressWarnings("rawtypes")
+		private Comparator<?> comparator(Collection<?> origin){
+			if(origin instanceof SortedSet){
+				return ((SortedSet) origin).comparator();
+			}
+			if(origin instanceof PriorityQueue){
+				return ((PriorityQueue) origin).comparator();
+			}
+			if(origin instanceof PriorityBlockingQueue){
+				return ((PriorityBlockingQueue) origin).comparator();
+			}
+			return null;
+		}
+
+		/** <p><des> 判定 LinkedHashMap 是否按访问顺序排列; 不能读取字段时以 get 第一个键探测, 之后按原顺序访问其余的键以恢复顺序 </des></p> */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private boolean isAccessOrder(LinkedHashMap origin){
+			if(ACCESS_ORDER != null){
+				try {
+					return ACCESS_ORDER.getBoolean(origin);
+				} catch (IllegalAccessException e) {
+					throw new ExecutetimeException(e);
+				}
+			}
+			if(origin.size() < 2){
+				return false; // the order of fewer than two entries tells nothing
+			}
+			Object[] keys = origin.keySet().toArray();
+			origin.get(keys[0]);
+			if(origin.keySet().iterator().next() == keys[0]){
+				return false;
+			}
+			for(int i = 1; i < keys.length; i++){
+				origin.get(keys[i]);
+			}
+			return true;
+		}
+
+		/**
+		 * <p><des> 创建同类型的空容器, 有比较器时使用以比较器为参数的构造方法, 没有时使用以初始容量及比较器为参数的构造方法(如 PriorityQueue);
+		 * 不能创建时抛出异常, 不以其他类型代替 </des></p>
+		 */
+		private Object newContainer(Class<?> type, Comparator<?> comparator, int size){
+			try {
+				if(comparator != null){
+					try {
+						return type.getConstructor(Comparator.class).newInstance(comparator);
+					} catch (NoSuchMethodException e) {
+						return type.getConstructor(int.class, Comparator.class).newInstance(Math.max(1, size), comparator);
+					}
+				}
+				type.getConstructor();
+			} catch (NoSuchMethodException e) {
+				throw new ExecutetimeException(e, "can not copy " + type.getName() + ", it has no public constructor "
+					+ (comparator == null ? "without arguments" : "taking a Comparator"));
+			} catch (Exception e) {
+				throw new ExecutetimeException(e);
+			}
+			return ClassUtil.getInstance(type);
+		}
+
+		/** <p><des> Collections 视图的元素先复制到同接口的普通容器 </des></p> */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Collection plainCollection(Collection<?> origin){
+			if(origin instanceof SortedSet){
+				return new TreeSet(((SortedSet) origin).comparator());
+			}
+			if(origin instanceof Set){
+				return new LinkedHashSet(origin.size() * 2);
+			}
+			return new ArrayList(origin.size());
+		}
+
+		/** <p><des> 以与原视图相同的方式包装复制的容器: 不可修改(包括 singleton, empty)或同步 </des></p> */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Collection wrapCollection(Class<?> type, Collection copy){
+			boolean synchronize = isSynchronizedView(type);
+			if(copy instanceof SortedSet){
+				return synchronize ? Collections.synchronizedSortedSet((SortedSet) copy) : Collections.unmodifiableSortedSet((SortedSet) copy);
+			}
+			if(copy instanceof Set){
+				return synchronize ? Collections.synchronizedSet((Set) copy) : Collections.unmodifiableSet((Set) copy);
+			}
+			if(List.class.isAssignableFrom(type)){
+				return synchronize ? Collections.synchronizedList((List) copy) : Collections.unmodifiableList((List) copy);
+			}
+			return synchronize ? Collections.synchronizedCollection(copy) : Collections.unmodifiableCollection(copy);
+		}
+
+		/** <p><des> 以与原视图相同的方式包装复制的Map </des></p> */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private Map wrapMap(Class<?> type, Map copy){
+			boolean synchronize = isSynchronizedView(type);
+			if(copy instanceof SortedMap){
+				return synchronize ? Collections.synchronizedSortedMap((SortedMap) copy) : Collections.unmodifiableSortedMap((SortedMap) copy);
+			}
+			return synchronize ? Collections.synchronizedMap(copy) : Collections.unmodifiableMap(copy);
+		}
+
+		/** <p><des> 判定 Collections 视图是同步视图还是不可修改视图, 其他视图(如 checked)抛出异常 </des></p> */
+		private boolean isSynchronizedView(Class<?> type){
+			String name = type.getName().substring(COLLECTIONS_VIEW.length());
+			if(name.startsWith("Synchronized")){
+				return true;
+			}
+			if(name.startsWith("Unmodifiable") || name.startsWith("Singleton") || name.startsWith("Empty")){
+				return false;
+			}
+			throw new ExecutetimeException("can not copy " + type.getName() + ", only unmodifiable and synchronized views are supported");
+		}
+
+		private Object register(Object origin, Object copy){
+			copied.put(origin, copy);
+			return copy;
+		}
+	}
+
+	static {
+		Class<?>[] types = {
+			String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+			Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class,
+			Class.class, Locale.class, UUID.class, File.class, URI.class, URL.class, Pattern.class, Currency.class,
+			Inet4Address.class, Inet6Address.class
+		};
+		for(Class<?> type : types){
+			immutableTypes.add(type);
+		}
+		for(String name : JAVA_TIME_TYPES){
+			try {
+				immutableTypes.add(Class.forName("java.time." + name));
+			} catch (ClassNotFoundException e) {
+				// before Java 8
+			}
+		}
+	}
+
+	/** <p><des> LinkedHashMap 的 accessOrder 字段, 运行环境不允许访问时返还null </des></p> */
+	private static Field accessOrderField(){
+		try {
+			Field field = LinkedHashMap.class.getDeclaredField("accessOrder");
+			field.setAccessible(true);
+			return field;
+		} catch (Exception e) {
+			// Java 9 and later do not open java.util
+			return null;
+		}
+	}
+
+}
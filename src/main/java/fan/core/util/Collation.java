@@ -0,0 +1,171 @@
+package fan.core.util;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+/**
+ * <p> <b> @描述：</b> 字符串排序规则。将字符串一次性转换为紧凑的排序键, 排序键之间按无符号字节逐个比较,
+ * 支持 GBK 编码顺序(常用汉字近似拼音顺序)及 java.text.Collator 的区域排序规则。
+ * 排序键可用于排序, 索引, 求前 K 个元素等需要多次比较同一字符串的场合
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-26
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class Collation implements Comparator<String> {
+
+	/** <p><des> GBK 编码顺序, 与 CollectionUtil.sortByAsc 对字符串字段的排序一致 </des></p> */
+	public static final Collation GBK = new Collation(null);
+
+	// the locale collator, null for GBK order
+	private final Locale locale;
+	// collators are not thread safe, one copy per thread
+	private final ThreadLocal<Collator> collators;
+
+	private Collation(final Locale locale){
+		this.locale = locale;
+		this.collators = locale == null ? null : new ThreadLocal<Collator>(){
+			@Override
+			protected Collator initialValue() {
+				return Collator.getInstance(locale);
+			}
+		};
+	}
+
+	/**
+	 * <p><des> 以区域的排序规则(java.text.Collator)创建排序规则 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Collation pinyin = Collation.of(Locale.CHINA);
+	 * <notes>// negative number</notes>
+	 * Testing.printlnObject(pinyin.compare("安", "北"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static Collation of(Locale locale){
+		if(locale == null){
+			throw new NullPointerException("locale");
+		}
+		return new Collation(locale);
+	}
+
+	/**
+	 * <p><des> 计算字符串的排序键, 同一排序规则下排序键的大小顺序与字符串一致, 特别的, 若参数为null, 则返还null </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Collation.Key key1 = Collation.GBK.key("杨晓婷");
+	 * Collation.Key key2 = Collation.GBK.key("叶国珠");
+	 * <notes>// negative number</notes>
+	 * Testing.printlnObject(key1.compareTo(key2));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public Key key(String source){
+		return source == null ? null : new Key(bytes(source));
+	}
+
+	/**
+	 * <p><des> 计算字符串排序键的字节表示, 字节按无符号数逐个比较, 较短的前缀较小 </des></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.Collation#compareBytes(byte[], byte[])
+	 */
+	public byte[] bytes(String source){
+		if(locale == null){
+			return StringUtil.getBytesGBK(source);
+		}
+		return collators.get().getCollationKey(source).toByteArray();
+	}
+
+	/**
+	 * <p><des> 按排序规则比较两个字符串, 需多次比较同一字符串时应使用 key 预先计算排序键 </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	public int compare(String s1, String s2) {
+		if(locale != null){
+			return collators.get().compare(s1, s2);
+		}
+		return compareBytes(StringUtil.getBytesGBK(s1), StringUtil.getBytesGBK(s2));
+	}
+
+	/**
+	 * <p><des> 按无符号字节逐个比较两个排序键, 较短的前缀较小 </des></p>
+	 * @since 0.3.0
+	 */
+	public static int compareBytes(byte[] b1, byte[] b2){
+		return compareBytes(b1, b2, 0);
+	}
+
+	@Override
+	public String toString() {
+		return locale == null ? "Collation[GBK]" : "Collation[" + locale + "]";
+	}
+
+	/** <p><des> 从指定位置开始按无符号字节比较 </des></p> */
+	private static int compareBytes(byte[] b1, byte[] b2, int from){
+		int length = Math.min(b1.length, b2.length);
+		for(int i = from; i < length; i++){
+			int c1 = b1[i] & 0xFF, c2 = b2[i] & 0xFF;
+			if(c1 != c2){
+				return c1 - c2;
+			}
+		}
+		return b1.length - b2.length;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 排序键。前 8 个字节压缩为一个 long, 大多数比较只需一次整数比较; 不可变, 可作为 Map 的键
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-26
+	 * <p> <b> @since 0.3.0 </b>
+	 */
+	public static final class Key implements Comparable<Key> {
+
+		// the first 8 bytes, big endian, offset for signed comparison
+		private final long prefix;
+		private final byte[] bytes;
+
+		Key(byte[] bytes){
+			long prefix = 0;
+			for(int i = 0; i < 8; i++){
+				prefix = (prefix << 8) | (i < bytes.length ? bytes[i] & 0xFF : 0);
+			}
+			this.prefix = prefix ^ Long.MIN_VALUE;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * <p><des> 排序键的字节表示的副本 </des></p>
+		 * @since 0.3.0
+		 */
+		public byte[] toByteArray(){
+			return bytes.clone();
+		}
+
+		@Override
+		public int compareTo(Key other) {
+			if(prefix != other.prefix){
+				return prefix < other.prefix ? -1 : 1;
+			}
+			return compareBytes(bytes, other.bytes, 8);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && prefix == ((Key) obj).prefix && Arrays.equals(bytes, ((Key) obj).bytes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(bytes);
+		}
+
+		@Override
+		public String toString() {
+			return ArrayUtil.toSimpleString(bytes);
+		}
+	}
+
+}
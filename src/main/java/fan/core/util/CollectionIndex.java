@@ -0,0 +1,310 @@
+package fan.core.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 集合的二级索引。按对象的一个字段建立索引, 分为散列索引(支持等值查找, 可要求唯一)
+ * 与有序索引(支持等值, 范围及字符串前缀查找), 由 CollectionUtil.indexBy, uniqueIndexBy, sortedIndexBy 创建。
+ * 整数类型的关键字之间, 浮点类型的关键字之间可以互相查找, 如 int 字段可以 Long 值查找。
+ * 索引不是线程安全的, 建立后只读时可在多个线程间共享
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-28
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class CollectionIndex<E> {
+
+	// kinds of index
+	static final int HASH = 0, UNIQUE = 1, SORTED = 2;
+
+	// orders the non-null keys of a sorted index
+	private static final Comparator<Object> KEY_ORDER = new Comparator<Object>() {
+		@Override
+		public int compare(Object k1, Object k2) {
+			return CollectionUtil.compareValue(k1, k2);
+		}
+	};
+
+	private final KeyAccessor accessor;
+	private final int kind;
+	// key -> element (unique index) or list of elements, null keys are kept apart
+	private final Map<Object, Object> entries;
+	private final List<E> nullKeyed = new ArrayList<E>(0);
+	// number of indexed elements
+	private int size;
+
+	CollectionIndex(String field, int kind){
+		this.accessor = new KeyAccessor(field);
+		this.kind = kind;
+		this.entries = kind == SORTED ? new TreeMap<Object, Object>(KEY_ORDER) : new HashMap<Object, Object>();
+	}
+
+	/**
+	 * <p><des> 索引的字段名 </des></p>
+	 * @since 0.3.0
+	 */
+	public String getField(){
+		return accessor.name;
+	}
+
+	/**
+	 * <p><des> 是否为唯一索引 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isUnique(){
+		return kind == UNIQUE;
+	}
+
+	/**
+	 * <p><des> 是否为有序索引 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isSorted(){
+		return kind == SORTED;
+	}
+
+	/**
+	 * <p><des> 已索引的元素个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * <p><des> 不同关键字的个数, 包括null </des></p>
+	 * @since 0.3.0
+	 */
+	public int keyCount(){
+		return entries.size() + (nullKeyed.isEmpty() ? 0 : 1);
+	}
+
+	/**
+	 * <p><des> 将元素加入索引, 唯一索引中关键字重复时抛出异常且索引不变 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;City&gt; byCode = CollectionUtil.uniqueIndexBy(cities, "code");
+	 * byCode.add(new City("020", "广州"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public void add(E element){
+		Object key = normalize(accessor.get(element));
+		if(key == null){
+			if(kind == UNIQUE && !nullKeyed.isEmpty()){
+				throw duplicate(null);
+			}
+			nullKeyed.add(element);
+		}else if(kind == UNIQUE){
+			if(entries.containsKey(key)){
+				throw duplicate(key);
+			}
+			entries.put(key, element);
+		}else{
+			List<E> elements = (List<E>) entries.get(key);
+			if(elements == null){
+				elements = new ArrayList<E>(2);
+				entries.put(key, elements);
+			}
+			elements.add(element);
+		}
+		size++;
+	}
+
+	/**
+	 * <p><des> 将集合的全部元素加入索引 </des></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionIndex#add(Object)
+	 */
+	public void addAll(Collection<? extends E> elements){
+		for(E element : elements){
+			add(element);
+		}
+	}
+
+	/**
+	 * <p><des> 等值查找, 返还关键字等于参数的全部元素(按加入顺序), 不存在时返还空列表, 返还的列表不可修改 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;User&gt; byDept = CollectionUtil.indexBy(users, "dept");
+	 * List&lt;User&gt; developers = byDept.get("develop");
+	 * Testing.printlnObject(developers);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public List<E> get(Object key){
+		key = normalize(key);
+		if(key == null){
+			return Collections.unmodifiableList(nullKeyed);
+		}
+		Object value = entries.get(key);
+		if(value == null){
+			return Collections.emptyList();
+		}
+		return kind == UNIQUE ? Collections.singletonList((E) value) : Collections.unmodifiableList((List<E>) value);
+	}
+
+	/**
+	 * <p><des> 等值查找, 返还关键字等于参数的第一个元素, 不存在时返还null, 适用于唯一索引 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;City&gt; byCode = CollectionUtil.uniqueIndexBy(cities, "code");
+	 * City guangzhou = byCode.getFirst("020");
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public E getFirst(Object key){
+		List<E> elements = get(key);
+		return elements.isEmpty() ? null : elements.get(0);
+	}
+
+	/**
+	 * <p><des> 是否存在关键字等于参数的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean containsKey(Object key){
+		key = normalize(key);
+		return key == null ? !nullKeyed.isEmpty() : entries.containsKey(key);
+	}
+
+	/**
+	 * <p><des> 范围查找, 返还关键字在 [from, to) 内的元素, 按关键字升序排列, 参数为null表示不限, 仅适用于有序索引。
+	 * 关键字为null的元素不包含在内 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;User&gt; byAge = CollectionUtil.sortedIndexBy(users, "age");
+	 * <notes>// 18 <= age < 30</notes>
+	 * List&lt;User&gt; young = byAge.range(18, 30);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionIndex#range(Object, boolean, Object, boolean)
+	 */
+	public List<E> range(Object from, Object to){
+		return range(from, true, to, false);
+	}
+
+	/**
+	 * <p><des> 范围查找, 参数2, 4分别表示是否包含下限与上限, 参数为null表示不限, 仅适用于有序索引;
+	 * 参数不能与关键字比较时(如以字符串查找数值关键字)抛出 ExecutetimeException </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// registered after the date, inclusive</notes>
+	 * List&lt;User&gt; recent = byRegisterTime.range(date, true, null, false);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public List<E> range(Object from, boolean fromInclusive, Object to, boolean toInclusive){
+		NavigableMap<Object, Object> sorted = sorted();
+		from = normalize(from);
+		to = normalize(to);
+		checkComparable(sorted, from);
+		checkComparable(sorted, to);
+		if(from != null && to != null){
+			int order = KEY_ORDER.compare(from, to);
+			if(order > 0 || (order == 0 && !(fromInclusive && toInclusive))){
+				return Collections.emptyList();
+			}
+			return collect(sorted.subMap(from, fromInclusive, to, toInclusive).values());
+		}
+		if(from != null){
+			return collect(sorted.tailMap(from, fromInclusive).values());
+		}
+		return collect(to == null ? sorted.values() : sorted.headMap(to, toInclusive).values());
+	}
+
+	/**
+	 * <p><des> 前缀查找, 返还字符串关键字以参数开头的元素, 按关键字升序排列, 仅适用于关键字为字符串的有序索引, 否则抛出 ExecutetimeException </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;City&gt; byName = CollectionUtil.sortedIndexBy(cities, "pinyin");
+	 * List&lt;City&gt; cities = byName.prefix("guang");
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public List<E> prefix(String prefix){
+		NavigableMap<Object, Object> sorted = sorted();
+		if(prefix == null){
+			throw new ExecutetimeException("prefix must not be null");
+		}
+		if(sorted.isEmpty()){
+			return Collections.emptyList();
+		}
+		// keys of one index share a type, a non-String key can not be compared with the prefix
+		if(!(sorted.firstKey() instanceof String)){
+			throw new ExecutetimeException("prefix lookups require String keys, but the keys of " + accessor.name
+				+ " are " + sorted.firstKey().getClass().getName());
+		}
+		List<Object> values = new ArrayList<Object>();
+		for(Map.Entry<Object, Object> entry : sorted.tailMap(prefix, true).entrySet()){
+			if(!((String) entry.getKey()).startsWith(prefix)){
+				break;
+			}
+			values.add(entry.getValue());
+		}
+		return collect(values);
+	}
+
+	@Override
+	public String toString() {
+		String name = kind == UNIQUE ? "UniqueIndex" : (kind == SORTED ? "SortedIndex" : "HashIndex");
+		return name + "[" + accessor.name + ", size=" + size + ", keys=" + keyCount() + "]";
+	}
+
+	/** <p><des> 有序索引的映射, 非有序索引抛出异常 </des></p> */
+	private NavigableMap<Object, Object> sorted(){
+		if(kind != SORTED){
+			throw new ExecutetimeException("range and prefix lookups require a sorted index on " + accessor.name);
+		}
+		return (NavigableMap<Object, Object>) entries;
+	}
+
+	/** <p><des> 合并多个关键字的元素列表 </des></p> */
+	@SuppressWarnings("unchecked")
+	private List<E> collect(Collection<Object> values){
+		List<E> elements = new ArrayList<E>();
+		for(Object value : values){
+			elements.addAll((List<E>) value);
+		}
+		return elements;
+	}
+
+	/** <p><des> 关键字重复的异常 </des></p> */
+	private ExecutetimeException duplicate(Object key){
+		return new ExecutetimeException("duplicate key '" + key + "' in unique index on " + accessor.name);
+	}
+
+	/** <p><des> 统一数值关键字的类型, 整数类型转换为 Long, float 按其十进制形式转换为 Double, 如 0.1f 转换为 0.1 </des></p> */
+	private static Object normalize(Object key){
+		if(key instanceof Integer || key instanceof Short || key instanceof Byte){
+			return ((Number) key).longValue();
+		}
+		if(key instanceof Float){
+			return Double.valueOf(key.toString());
+		}
+		return key;
+	}
+
+	/** <p><des> 校验范围查找的参数能否与索引的关键字比较, 不能时抛出异常 </des></p> */
+	private void checkComparable(NavigableMap<Object, Object> sorted, Object key){
+		if(key == null || sorted.isEmpty()){
+			return ;
+		}
+		try {
+			KEY_ORDER.compare(key, sorted.firstKey());
+		} catch (ClassCastException e) {
+			throw new ExecutetimeException("can not compare " + key.getClass().getName() + " with the keys of " + accessor.name
+				+ ", which are " + sorted.firstKey().getClass().getName());
+		}
+	}
+
+}
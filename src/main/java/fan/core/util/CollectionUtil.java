@@ -1,14 +1,18 @@
 package fan.core.util;
 
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
 import fan.core.exception.ExecutetimeException;
+import fan.core.util.collection.CompactSet;
 import fan.core.util.code.SortCode;
 /**
  * <p> <b> @描述：</b> 集合常用操作工具类
@@ -21,6 +25,14 @@ public class CollectionUtil {
 
 	private CollectionUtil(){}
 	
+	/** <p><des> 并行排序的默认阈值, 元素个数小于该值的集合按顺序排序 </des></p> */
+	public static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+	
+	// ranges not longer than this are sorted by insertion sort
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+	// minimum length of a segment sorted by one thread
+	private static final int MIN_PARALLEL_SEGMENT = 1 << 12;
+	
 	/**
 	 * <p><des> 判定集合是否为空 </des></p>
 	 * <p><pre>
@@ -199,8 +211,38 @@ public class CollectionUtil {
 		return new HashSet<E>(initialCapacity, (float) loadFactor);
 	}
 	
+	/**
+	 * <p><des> 返还不可修改的紧凑Set, 适合元素固定的只读查找表, 比HashSet占用更少的内存, contains 通常只比较一次。
+	 * 遍历顺序与参数顺序相同, 重复的元素只保留第一个, 不接受null元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * private static final Set&lt;String&gt; KEYWORDS = CollectionUtil.compactSet("select", "from", "where");
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(KEYWORDS.contains("from"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.collection.CompactSet
+	 */
+	public static <E> Set<E> compactSet(E... elements){
+		return CompactSet.of(elements);
+	}
+	
+	/**
+	 * <p><des> 以集合的元素返还不可修改的紧凑Set, 遍历顺序与参数集合相同, 重复的元素只保留第一个, 不接受null元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Set&lt;String&gt; codes = CollectionUtil.compactSet(loadCodes());
+	 * Testing.printlnObject(codes);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <E> Set<E> compactSet(Collection<? extends E> collection){
+		return CompactSet.copyOf(collection);
+	}
+	
 	/**
 	 * <p><des> 根据关键字排序集合, 关键字类型支持常用的数值类型, 字符类型, 布尔类型, 日期类型 
+	 * 排序是稳定的, 关键字相同的元素保持原有的相对顺序, 关键字为null的元素视为最小, 每个元素的关键字只读取一次
 	 * 特别说明, 中文排序不太准确, 常用汉字排序可用, 若要求中文严格排序, 建议不要使用 </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
@@ -278,6 +320,7 @@ public class CollectionUtil {
 	
 	/**
 	 * <p><des> 根据关键字排序集合, 关键字类型支持常用的数值类型, 字符类型, 布尔类型, 日期类型 
+	 * 排序是稳定的, 关键字相同的元素保持原有的相对顺序, 关键字为null的元素视为最小, 每个元素的关键字只读取一次
 	 * 特别说明, 中文排序不太准确, 常用汉字排序可用, 若要求中文严格排序, 建议不要使用 </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
@@ -352,118 +395,804 @@ public class CollectionUtil {
 		sortBySortKey(collection, key, SortCode.DESC);
 	}
 	
-	/** <p><des> 根据排序关键字排序集合 </des></p> */
+	/**
+	 * <p><des> 并行的根据关键字升序排序集合, 规则与 sortByAsc 一致(稳定排序, 关键字为null的元素视为最小)。
+	 * 集合元素个数小于 PARALLEL_SORT_THRESHOLD 或只有一个处理器时按顺序排序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;User&gt; users = userService.findAll();
+	 * CollectionUtil.parallelSortByAsc(users, "registerTime");
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#sortByAsc(Collection, String)
+	 */
+	public static <E> void parallelSortByAsc(Collection<E> collection, String key){
+		parallelSortBySortKey(collection, key, SortCode.ASC, PARALLEL_SORT_THRESHOLD);
+	}
+	
+	/**
+	 * <p><des> 并行的根据关键字升序排序集合, 集合元素个数小于参数3时按顺序排序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionUtil.parallelSortByAsc(users, "registerTime", 100000);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#parallelSortByAsc(Collection, String)
+	 */
+	public static <E> void parallelSortByAsc(Collection<E> collection, String key, int threshold){
+		parallelSortBySortKey(collection, key, SortCode.ASC, threshold);
+	}
+	
+	/**
+	 * <p><des> 并行的根据关键字降序排序集合, 规则与 sortByDesc 一致(稳定排序, 关键字为null的元素视为最小)。
+	 * 集合元素个数小于 PARALLEL_SORT_THRESHOLD 或只有一个处理器时按顺序排序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;User&gt; users = userService.findAll();
+	 * CollectionUtil.parallelSortByDesc(users, "registerTime");
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#sortByDesc(Collection, String)
+	 */
+	public static <E> void parallelSortByDesc(Collection<E> collection, String key){
+		parallelSortBySortKey(collection, key, SortCode.DESC, PARALLEL_SORT_THRESHOLD);
+	}
+	
+	/**
+	 * <p><des> 并行的根据关键字降序排序集合, 集合元素个数小于参数3时按顺序排序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionUtil.parallelSortByDesc(users, "registerTime", 100000);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#parallelSortByDesc(Collection, String)
+	 */
+	public static <E> void parallelSortByDesc(Collection<E> collection, String key, int threshold){
+		parallelSortBySortKey(collection, key, SortCode.DESC, threshold);
+	}
+	
+	/**
+	 * <p><des> 按排序规格排序集合, 规格可包含多个关键字, 前一个关键字相同时按后一个关键字排序。
+	 * 排序是稳定的, 每个元素的各关键字只读取一次 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// compile once, reuse across calls and threads</notes>
+	 * private static final SortSpec BY_DEPT_SALARY = SortSpec.compile("dept ASC, salary DESC NULLS LAST, name ASC");
+	 * 
+	 * CollectionUtil.sort(employees, BY_DEPT_SALARY);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.SortSpec#compile(String)
+	 */
+	public static <E> void sort(Collection<E> collection, SortSpec spec){
+		if(isEmpty(collection)) return ;
+		Object[] source = collection.toArray();
+		sort(collection, source, spec.sorter(source.length), Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * <p><des> 并行的按排序规格排序集合, 集合元素个数小于 PARALLEL_SORT_THRESHOLD 或只有一个处理器时按顺序排序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionUtil.parallelSort(employees, SortSpec.compile("dept, salary DESC"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#sort(Collection, SortSpec)
+	 */
+	public static <E> void parallelSort(Collection<E> collection, SortSpec spec){
+		if(isEmpty(collection)) return ;
+		Object[] source = collection.toArray();
+		sort(collection, source, spec.sorter(source.length), PARALLEL_SORT_THRESHOLD);
+	}
+	
+	/**
+	 * <p><des> 返还按关键字排序后的前 k 个元素, 结果与排序后取前 k 个元素一致(稳定, 关键字为null的元素视为最小),
+	 * 但不排序全部元素, 时间复杂度为 O(n log k), 且不修改原集合。集合元素个数不足 k 时返还全部元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// the 100 users registered most recently</notes>
+	 * List&lt;User&gt; latest = CollectionUtil.topN(users, "registerTime", 100, SortCode.DESC);
+	 * Testing.printlnObject(latest);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#sortByDesc(Collection, String)
+	 */
+	public static <E> List<E> topN(Collection<E> collection, String key, int k, SortCode sortCode){
+		return topN(collection, key, k, sortCode, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * <p><des> 并行的返还按关键字排序后的前 k 个元素, 各线程分段选出前 k 个元素后再合并。
+	 * 集合元素个数小于 PARALLEL_SORT_THRESHOLD 或只有一个处理器时按顺序选择 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;Order&gt; largest = CollectionUtil.parallelTopN(orders, "amount", 100, SortCode.DESC);
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#topN(Collection, String, int, SortCode)
+	 */
+	public static <E> List<E> parallelTopN(Collection<E> collection, String key, int k, SortCode sortCode){
+		return topN(collection, key, k, sortCode, PARALLEL_SORT_THRESHOLD);
+	}
+	
+	/**
+	 * <p><des> 按字段建立散列索引, 一个关键字可对应多个元素, 支持等值查找, 之后可通过 add 增量加入元素 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;User&gt; byDept = CollectionUtil.indexBy(users, "dept");
+	 * Testing.printlnObject(byDept.get("develop"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionIndex
+	 */
+	public static <E> CollectionIndex<E> indexBy(Collection<E> collection, String field){
+		return index(collection, field, CollectionIndex.HASH);
+	}
+	
+	/**
+	 * <p><des> 按字段建立唯一的散列索引, 关键字重复时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;City&gt; byCode = CollectionUtil.uniqueIndexBy(cities, "code");
+	 * Testing.printlnObject(byCode.getFirst("020"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionIndex
+	 */
+	public static <E> CollectionIndex<E> uniqueIndexBy(Collection<E> collection, String field){
+		return index(collection, field, CollectionIndex.UNIQUE);
+	}
+	
+	/**
+	 * <p><des> 按字段建立有序索引, 支持等值, 范围及字符串前缀查找。数值按数值大小, 字符串按字典顺序, 其余按其自身的 compareTo 排列 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * CollectionIndex&lt;User&gt; byAge = CollectionUtil.sortedIndexBy(users, "age");
+	 * Testing.printlnObject(byAge.range(18, 30));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionIndex
+	 */
+	public static <E> CollectionIndex<E> sortedIndexBy(Collection<E> collection, String field){
+		return index(collection, field, CollectionIndex.SORTED);
+	}
+	
+	/** <p><des> 建立索引 </des></p> */
+	private static <E> CollectionIndex<E> index(Collection<E> collection, String field, int kind){
+		CollectionIndex<E> index = new CollectionIndex<E>(field, kind);
+		if(collection != null){
+			index.addAll(collection);
+		}
+		return index;
+	}
+	
+	/** <p><des> 选择前 k 个元素, 元素个数不小于参数5且有多个处理器时并行选择 </des></p> */
 	@SuppressWarnings("unchecked")
+	private static <E> List<E> topN(Collection<E> collection, String key, int k, SortCode sortCode, int threshold){
+		if(k < 0){
+			throw new ExecutetimeException("k must not be negative: " + k);
+		}
+		if(isEmpty(collection) || k == 0){
+			return new ArrayList<E>();
+		}
+		Object[] source = collection.toArray();
+		KeySorter sorter = sorter(source, key, sortCode);
+		int segments = Math.min(ParallelExecutor.parallelism(), source.length / MIN_PARALLEL_SEGMENT);
+		if(source.length < threshold || segments < 2){
+			segments = 1;
+		}
+		List<TopTask> tasks = new ArrayList<TopTask>(segments);
+		for(int i = 0; i < segments; i++){
+			tasks.add(new TopTask(source, (int) ((long) source.length * i / segments),
+				(int) ((long) source.length * (i + 1) / segments), k, sorter));
+		}
+		if(segments == 1){
+			tasks.get(0).call();
+		}else{
+			ParallelExecutor.invokeAll(tasks);
+		}
+		int count = 0;
+		for(TopTask task : tasks){
+			count += task.selected.length;
+		}
+		int[] candidates = new int[count];
+		count = 0;
+		for(TopTask task : tasks){
+			System.arraycopy(task.selected, 0, candidates, count, task.selected.length);
+			count += task.selected.length;
+		}
+		Arrays.sort(candidates); // original order, so that the merge sort keeps ties stable
+		mergesort(candidates, new int[candidates.length], 0, candidates.length, sorter);
+		List<E> top = new ArrayList<E>(Math.min(k, candidates.length));
+		for(int i = 0; i < k && i < candidates.length; i++){
+			top.add((E) source[candidates[i]]);
+		}
+		return top;
+	}
+	
+	/** <p><des> 根据排序关键字排序集合 </des></p> */
 	private static <E> void sortBySortKey(Collection<E> collection, String key, SortCode sortKey){
+		parallelSortBySortKey(collection, key, sortKey, Integer.MAX_VALUE);
+	}
+	
+	/** <p><des> 并行的根据排序关键字排序集合 </des></p> */
+	private static <E> void parallelSortBySortKey(Collection<E> collection, String key, SortCode sortKey, int threshold){
 		if(isEmpty(collection)) return ;
-		Object[] source = ArrayUtil.asArray(collection);
-		Class<E> entityClass = (Class<E>) collection.iterator().next().getClass(); // e type
-		SimpleComparator comparator = new SimpleComparator(entityClass, key, sortKey);
-		quicksort(source, 0, source.length - 1, comparator);
+		Object[] source = collection.toArray();
+		sort(collection, source, sorter(source, key, sortKey), threshold);
+	}
+	
+	/** <p><des> 按关键字的类型创建关键字提取器 </des></p> */
+	private static KeySorter sorter(Object[] source, String key, SortCode sortKey){
+		Class<?> entityClass = source[0].getClass();
+		if(SimpleComparator.KeyType.valueOf(FieldUtil.getFieldType(entityClass, key)) == SimpleComparator.KeyType.NUMBER){
+			return new NumberSorter(key, sortKey, source.length);
+		}
+		return new SimpleComparator(entityClass, key, sortKey, source.length);
+	}
+	
+	/** <p><des> 排序集合。元素个数不小于参数4且有多个处理器时, 各线程分段提取关键字并排序, 再由各线程逐轮两两归并相邻的有序段 </des></p> */
+	private static <E> void sort(Collection<E> collection, Object[] source, KeySorter sorter, int threshold){
+		int segments = Math.min(ParallelExecutor.parallelism(), source.length / MIN_PARALLEL_SEGMENT);
+		if(source.length < threshold || segments < 2){
+			segments = 1;
+		}
+		int[] bounds = new int[segments + 1];
+		for(int i = 0; i <= segments; i++){
+			bounds[i] = (int) ((long) source.length * i / segments);
+		}
+		int[] index = new int[source.length], buffer = new int[source.length];
+		if(segments == 1){
+			new SortTask(source, index, buffer, 0, source.length, sorter).call();
+			refill(collection, source, index);
+			return ;
+		}
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(segments);
+		for(int i = 0; i < segments; i++){
+			tasks.add(new SortTask(source, index, buffer, bounds[i], bounds[i + 1], sorter));
+		}
+		ParallelExecutor.invokeAll(tasks);
+		while(bounds.length > 2){ // merge adjacent segments pairwise, from index into buffer
+			int[] merged = new int[bounds.length / 2 + 1];
+			tasks.clear();
+			for(int i = 0; i + 1 < bounds.length; i += 2){
+				int high = i + 2 < bounds.length ? bounds[i + 2] : bounds[i + 1];
+				int middle = i + 2 < bounds.length ? bounds[i + 1] : high;
+				tasks.add(new MergeTask(index, buffer, bounds[i], middle, high, sorter));
+				merged[i / 2 + 1] = high;
+			}
+			ParallelExecutor.invokeAll(tasks);
+			int[] swap = index;
+			index = buffer;
+			buffer = swap;
+			bounds = merged;
+		}
+		refill(collection, source, index);
+	}
+	
+	/**
+	 * <p><des> 按排列后的下标重新填充集合。随机访问的 List 以 set 原位写入, 固定长度的视图(如 ArraySlice, Arrays.asList)也适用;
+	 * 不支持 set 的 List, CopyOnWriteArrayList(每次 set 复制数组)及其他集合先清空再全部添加 </des></p>
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> void refill(Collection<E> collection, Object[] source, int[] index){
+		if(collection instanceof List && collection instanceof RandomAccess && !(collection instanceof CopyOnWriteArrayList)){
+			List<E> list = (List<E>) collection;
+			try {
+				for(int i = 0; i < index.length; i++){
+					list.set(i, (E) source[index[i]]);
+				}
+				return ;
+			} catch (UnsupportedOperationException e) {
+				// set is rejected on the first call, before anything is written
+			}
+		}
+		Object[] sorted = new Object[source.length];
+		for(int i = 0; i < sorted.length; i++){
+			sorted[i] = source[index[i]];
+		}
 		collection.clear(); // clear origin
-		collection.addAll((List<E>)asList(source)); // refill collection
+		collection.addAll((List<E>)asList(sorted)); // refill collection
+	}
+	
+	/** <p><des> 稳定的归并排序算法, 按关键字排列元素下标, 区间为 [low, high) </des></p> */
+	private static void mergesort(int[] index, int[] buffer, int low, int high, KeySorter sorter){
+		if(high - low <= INSERTION_SORT_THRESHOLD){
+			insertionsort(index, low, high, sorter);
+			return ;
+		}
+		int middle = (low + high) >>> 1;
+		mergesort(index, buffer, low, middle, sorter);
+		mergesort(index, buffer, middle, high, sorter);
+		if(sorter.compare(index[middle - 1], index[middle]) <= 0){
+			return ; // already in order, the common case for sorted input
+		}
+		System.arraycopy(index, low, buffer, low, high - low);
+		merge(buffer, index, low, middle, high, sorter);
+	}
+	
+	/** <p><des> 稳定的归并两个相邻的有序区间 [low, middle) 与 [middle, high), 结果写入参数2 </des></p> */
+	private static void merge(int[] from, int[] to, int low, int middle, int high, KeySorter sorter){
+		for(int i = low, j = middle, k = low; k < high; k++){
+			if(j >= high || (i < middle && sorter.compare(from[i], from[j]) <= 0)){
+				to[k] = from[i++];
+			}else{
+				to[k] = from[j++];
+			}
+		}
+	}
+	
+	/** <p><des> 稳定的插入排序算法, 区间为 [low, high) </des></p> */
+	private static void insertionsort(int[] index, int low, int high, KeySorter sorter){
+		for(int i = low + 1; i < high; i++){
+			int current = index[i];
+			int j = i - 1;
+			while(j >= low && sorter.compare(index[j], current) > 0){
+				index[j + 1] = index[j];
+				j--;
+			}
+			index[j + 1] = current;
+		}
+	}
+	
+	/** <p><des> 获取排序关键字字段, 字段不存在时抛出异常 </des></p> */
+	static Field sortField(Class<?> entityClass, String key){
+		Field field = FieldUtil.getAccessibleField(entityClass, key);
+		if(field == null){
+			throw new ExecutetimeException(new NoSuchFieldException(
+				"field name '" + key + "' can not be found in the class " + entityClass.getSimpleName()));
+		}
+		return field;
+	}
+	
+	/** <p><des> 比较两个非null的关键字值: 数值按数值大小, 字符按编码, 其余按其自身的 compareTo </des></p> */
+	@SuppressWarnings("unchecked")
+	static int compareValue(Object v1, Object v2){
+		if(v1 instanceof Number && v2 instanceof Number){
+			return numberCompare((Number) v1, (Number) v2);
+		}
+		return ((Comparable<Object>) v1).compareTo(v2);
+	}
+	
+	/** <p><des> 比较两个数值类型关键字的大小 </des></p> */
+	static int numberCompare(Number n1, Number n2) {
+		if(isIntegral(n1) && isIntegral(n2)){
+			long l1 = n1.longValue(), l2 = n2.longValue();
+			return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+		}
+		if((n1 instanceof Double || n1 instanceof Float) && (n2 instanceof Double || n2 instanceof Float)){
+			double d1 = n1.doubleValue(), d2 = n2.doubleValue();
+			return d1 < d2 ? -1 : (d1 > d2 ? 1 : 0);
+		}
+		return new BigDecimal(n1.toString()).compareTo(new BigDecimal(n2.toString()));
+	}
+	
+	/** <p><des> 是否为整数类型的数值 </des></p> */
+	private static boolean isIntegral(Number number) {
+		return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+	}
+	
+	/** <p><des> 关键字值的比较形式, 字符串转换为 GBK 编码顺序的排序键 </des></p> */
+	static Object collationKey(Object value) {
+		return collationKey(value, Collation.GBK);
 	}
 	
-	/** <p><des> 快速排序算法 </des></p> */
-	private static void quicksort(Object[] array, int low,int hight, SimpleComparator comparator){
-		if(low < hight){
-			int position = partition(array, low, hight, comparator);
-			quicksort(array, low, position - 1, comparator);
-			quicksort(array, position + 1, hight, comparator);
+	/** <p><des> 关键字值的比较形式, 字符串转换为参数2的排序键 </des></p> */
+	static Object collationKey(Object value, Collation collation) {
+		return value instanceof String ? collation.key((String) value) : value;
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 按下标排序的关键字。先提取元素的关键字, 再按元素下标比较关键字
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-24
+	 */
+	static abstract class KeySorter {
+
+		/** <p><des> 提取区间 [from, to) 内元素的关键字, 不同线程提取不同的区间 </des></p> */
+		abstract void extract(Object[] elements, int from, int to);
+
+		/** <p><des> 比较下标为 i 与 j 的元素的关键字 </des></p> */
+		abstract int compare(int i, int j);
+
+		/** <p><des> 以专门的算法稳定的排序区间 [low, high) 内的下标, 不适用时返还false, 由归并排序完成 </des></p> */
+		boolean sort(int[] index, int[] buffer, int low, int high){
+			return false;
 		}
 	}
+	
+	/**
+	 * <p> <b> @描述：</b> 排序任务。提取一段元素的关键字并排序该段的下标
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-23
+	 */
+	private static class SortTask implements Callable<Void> {
+
+		private final Object[] source;
+		private final int[] index;
+		private final int[] buffer;
+		private final int low;
+		private final int high;
+		private final KeySorter sorter;
+
+		SortTask(Object[] source, int[] index, int[] buffer, int low, int high, KeySorter sorter){
+			this.source = source;
+			this.index = index;
+			this.buffer = buffer;
+			this.low = low;
+			this.high = high;
+			this.sorter = sorter;
+		}
 
-	/** <p><des> 快速排序算法 </des></p> */
-	private static int partition(Object[] array, int low,int hight, SimpleComparator comparator){
-		Object key = array[low];
-		while(low < hight){
-			while(low < hight && comparator.compare(array[hight], key) >= 0){
-				hight--;
+		@Override
+		public Void call() {
+			sorter.extract(source, low, high);
+			for(int i = low; i < high; i++){
+				index[i] = i;
 			}
-			array[low] = array[hight];
-			while(low < hight && comparator.compare(array[low], key) <= 0){
-				low++;
+			if(!sorter.sort(index, buffer, low, high)){
+				mergesort(index, buffer, low, high, sorter);
 			}
-			array[hight] = array[low];
+			return null;
 		}
-		array[low] = key;
-		return low;
 	}
 	
 	/**
-	 * <p> <b> @描述：</b> 比较器。提供 compare 方法比较两关键字的大小
+	 * <p> <b> @描述：</b> 选择任务。提取一段元素的关键字, 以大小为 k 的堆选出该段排序后的前 k 个元素,
+	 * 堆顶为已选元素中排序最靠后的元素, 关键字相同时下标较大的元素靠后
 	 * <p> <b> @作者：</b> fancore
 	 * <p> <b> @邮箱：</b> fancore@126.com
-	 * <p> <b> @日期：</b> 2014-06-08
+	 * <p> <b> @日期：</b> 2014-07-27
 	 */
-	static class SimpleComparator {
+	private static class TopTask implements Callable<Void> {
+
+		private final Object[] source;
+		private final int low;
+		private final int high;
+		private final int k;
+		private final KeySorter sorter;
+		// indexes of the selected elements, in heap order
+		int[] selected;
+
+		TopTask(Object[] source, int low, int high, int k, KeySorter sorter){
+			this.source = source;
+			this.low = low;
+			this.high = high;
+			this.k = k;
+			this.sorter = sorter;
+		}
+
+		@Override
+		public Void call() {
+			sorter.extract(source, low, high);
+			int[] heap = new int[Math.min(k, high - low)];
+			int size = 0;
+			for(int i = low; i < high; i++){
+				if(size < heap.length){
+					heap[size] = i;
+					siftUp(heap, size++);
+				}else if(after(heap[0], i)){
+					heap[0] = i;
+					siftDown(heap, size);
+				}
+			}
+			selected = heap;
+			return null;
+		}
+
+		/** <p><des> 下标 i 的元素是否排在下标 j 的元素之后 </des></p> */
+		private boolean after(int i, int j){
+			int result = sorter.compare(i, j);
+			return result > 0 || (result == 0 && i > j);
+		}
+
+		private void siftUp(int[] heap, int position){
+			int current = heap[position];
+			while(position > 0){
+				int parent = (position - 1) >>> 1;
+				if(!after(current, heap[parent])){
+					break;
+				}
+				heap[position] = heap[parent];
+				position = parent;
+			}
+			heap[position] = current;
+		}
+
+		private void siftDown(int[] heap, int size){
+			int current = heap[0], position = 0;
+			while(true){
+				int child = 2 * position + 1;
+				if(child >= size){
+					break;
+				}
+				if(child + 1 < size && after(heap[child + 1], heap[child])){
+					child++;
+				}
+				if(!after(heap[child], current)){
+					break;
+				}
+				heap[position] = heap[child];
+				position = child;
+			}
+			heap[position] = current;
+		}
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 并行归并任务。归并两个相邻的有序段, 若只有一段则直接复制
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-23
+	 */
+	private static class MergeTask implements Callable<Void> {
+
+		private final int[] from;
+		private final int[] to;
+		private final int low;
+		private final int middle;
+		private final int high;
+		private final KeySorter sorter;
+
+		MergeTask(int[] from, int[] to, int low, int middle, int high, KeySorter sorter){
+			this.from = from;
+			this.to = to;
+			this.low = low;
+			this.middle = middle;
+			this.high = high;
+			this.sorter = sorter;
+		}
+
+		@Override
+		public Void call() {
+			merge(from, to, low, middle, high, sorter);
+			return null;
+		}
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 数值关键字比较器。关键字以基本类型提取(整数类型保存为 long, 浮点类型保存为 double 的位), 不装箱比较;
+	 * 关键字类型一致且不含null的区间以基数排序。比较结果与按数值大小比较一致, -0.0 与 0.0 相等, NaN 大于所有数值
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-25
+	 */
+	static class NumberSorter extends KeySorter {
+
+		// kinds of extracted key
+		private static final byte NULL = 0, LONG = 1, DOUBLE = 2;
+		// ranges shorter than this are sorted by merge sort
+		private static final int RADIX_SORT_THRESHOLD = 1 << 8;
 
 		// the key word
-		private String key;
-		// the type of key word
-		private KeyType keyType;
+		private final String key;
 		// asc or desc
-		private boolean isAsc;
-		
-		public SimpleComparator(Class<?> entityClass, String key, SortCode sortKey){
+		private final boolean isAsc;
+		// long values, or the bits of double values
+		private final long[] values;
+		private final byte[] kinds;
+
+		NumberSorter(String key, SortCode sortKey, int size){
 			this.key = key;
-			isAsc = SortCode.equalsCode(sortKey, SortCode.ASC);
-			this.keyType = KeyType.valueOf(FieldUtil.getFieldType(entityClass, key));
+			this.isAsc = SortCode.equalsCode(sortKey, SortCode.ASC);
+			this.values = new long[size];
+			this.kinds = new byte[size];
 		}
 
-		/** <p><des> 根据关键字的类型比较关键字值的大小 </des></p> */
-		public int compare(Object o1, Object o2){
-			switch (keyType) {
-				case NUMBER :
-					return numberCompare(value(o1), value(o2));
-				case STRING :
-					return stringCompare(value(o1), value(o2));
-				case CHAR:
-					return charCompare(value(o1), value(o2));
-				case BOOL:
-					return boolCompare(value(o1), value(o2));
-				case DATE :
-					return dateCompare(value(o1), value(o2));
+		/** <p><des> 提取区间 [from, to) 内元素的数值关键字, 基本类型字段不装箱读取 </des></p> */
+		@Override
+		void extract(Object[] elements, int from, int to){
+			Class<?> entityClass = null;
+			Field field = null;
+			int fieldKind = FieldPlan.OBJECT;
+			try {
+				for(int i = from; i < to; i++){
+					Object element = elements[i];
+					if(element.getClass() != entityClass){ // resolve the field once per class
+						entityClass = element.getClass();
+						field = sortField(entityClass, key);
+						fieldKind = FieldPlan.kindOf(field.getType());
+					}
+					switch (fieldKind) {
+						case FieldPlan.FLOAT :
+							store(i, floatValue(field.getFloat(element)));
+							break;
+						case FieldPlan.DOUBLE :
+							store(i, field.getDouble(element));
+							break;
+						case FieldPlan.OBJECT :
+							Object value = field.get(element);
+							if(value == null){
+								kinds[i] = NULL;
+							}else if(value instanceof Float){
+								store(i, floatValue((Float) value));
+							}else if(value instanceof Double){
+								store(i, (Double) value);
+							}else{
+								kinds[i] = LONG;
+								values[i] = ((Number) value).longValue();
+							}
+							break;
+						default :
+							kinds[i] = LONG;
+							values[i] = field.getLong(element);
+					}
+				}
+			} catch (IllegalAccessException e) {
+				throw new ExecutetimeException(e);
 			}
-			throw new ExecutetimeException(key + " field type is not supported for sorting.");
 		}
 
-		/** <p><des> 比较两个数值类型关键字的大小 </des></p> */
-		private int numberCompare(Object o1, Object o2) {
-			BigDecimal n1 = new BigDecimal(o1.toString());
-			BigDecimal n2 = new BigDecimal(o2.toString());
-			return isAsc ? n1.compareTo(n2) : n2.compareTo(n1);
+		/** <p><des> 比较两个数值关键字, null视为最小 </des></p> */
+		@Override
+		int compare(int i, int j){
+			byte k1 = kinds[i], k2 = kinds[j];
+			int result;
+			if(k1 == LONG && k2 == LONG){
+				long l1 = values[i], l2 = values[j];
+				result = l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+			}else if(k1 == NULL || k2 == NULL){
+				result = k1 == k2 ? 0 : (k1 == NULL ? -1 : 1);
+			}else if(k1 == DOUBLE && k2 == DOUBLE){
+				result = doubleCompare(Double.longBitsToDouble(values[i]), Double.longBitsToDouble(values[j]));
+			}else{
+				result = mixedCompare(i, j); // long with double, rare
+			}
+			return isAsc ? result : -result;
 		}
 
-		/** <p><des> 比较两个字符类串型关键字的大小 </des></p> */
-		private int stringCompare(Object o1, Object o2) {
-			String s1 = StringUtil.getStringISO1(StringUtil.getBytesGBK(o1.toString()));
-			String s2 = StringUtil.getStringISO1(StringUtil.getBytesGBK(o2.toString()));
-			return isAsc ? s1.compareTo(s2) : s2.compareTo(s1);
+		/** <p><des> 关键字类型一致且不含null时, 以最低位优先的基数排序稳定的排序区间 [low, high) 内的下标 </des></p> */
+		@Override
+		boolean sort(int[] index, int[] buffer, int low, int high){
+			int size = high - low;
+			if(size < RADIX_SORT_THRESHOLD){
+				return false;
+			}
+			byte kind = kinds[index[low]];
+			long[] keys = new long[size];
+			for(int i = 0; i < size; i++){
+				int position = index[low + i];
+				if(kinds[position] != kind || kind == NULL){
+					return false;
+				}
+				keys[i] = sortableBits(kind, values[position]);
+			}
+			long[] keyBuffer = new long[size];
+			int[] from = index, to = buffer;
+			int[] counts = new int[257];
+			for(int shift = 0; shift < 64; shift += 8){
+				Arrays.fill(counts, 0);
+				for(int i = 0; i < size; i++){
+					counts[((int) (keys[i] >>> shift) & 0xFF) + 1]++;
+				}
+				if(counts[((int) (keys[0] >>> shift) & 0xFF) + 1] == size){
+					continue; // all keys share this byte
+				}
+				for(int i = 1; i < counts.length; i++){
+					counts[i] += counts[i - 1];
+				}
+				for(int i = 0; i < size; i++){
+					int position = counts[(int) (keys[i] >>> shift) & 0xFF]++;
+					keyBuffer[position] = keys[i];
+					to[low + position] = from[low + i];
+				}
+				long[] swapKeys = keys;
+				keys = keyBuffer;
+				keyBuffer = swapKeys;
+				int[] swap = from;
+				from = to;
+				to = swap;
+			}
+			if(from != index){
+				System.arraycopy(from, low, index, low, size);
+			}
+			return true;
 		}
 
-		/** <p><des> 比较两个字符类型关键字的大小 </des></p> */
-		private int charCompare(Object o1, Object o2) {
-			char c1 = (Character) o1;
-			char c2 = (Character) o2;
-			return isAsc ? c1 - c2 : c2 - c1;
+		/** <p><des> 将关键字转换为按无符号数比较即有序的形式, 降序时取反 </des></p> */
+		private long sortableBits(byte kind, long value){
+			long bits;
+			if(kind == LONG){
+				bits = value ^ Long.MIN_VALUE;
+			}else{
+				double d = Double.longBitsToDouble(value);
+				bits = Double.doubleToLongBits(d == 0 ? 0.0 : d); // -0.0 equals 0.0, canonical NaN
+				bits ^= (bits >> 63) | Long.MIN_VALUE;
+			}
+			return isAsc ? bits : ~bits;
 		}
 
-		/** <p><des> 比较两个布尔类型关键字的大小 </des></p> */
-		private int boolCompare(Object o1, Object o2) {
-			Boolean b1 = (Boolean) o1;
-			Boolean b2 = (Boolean) o2;
-			return isAsc ? b1.compareTo(b2) : b2.compareTo(b1);
+		/** <p><des> 保存浮点类型关键字 </des></p> */
+		private void store(int i, double value){
+			kinds[i] = DOUBLE;
+			values[i] = Double.doubleToRawLongBits(value);
 		}
 
-		/** <p><des> 比较两个日期类型关键字的大小 </des></p> */
-		private int dateCompare(Object o1, Object o2) {
-			return isAsc ? ((Date)o1).compareTo((Date)o2) : ((Date)o2).compareTo((Date)o1);
+		/** <p><des> 比较两个浮点数, -0.0 与 0.0 相等, NaN 大于所有数值 </des></p> */
+		private static int doubleCompare(double d1, double d2){
+			if(d1 < d2) return -1;
+			if(d1 > d2) return 1;
+			boolean nan1 = d1 != d1, nan2 = d2 != d2;
+			return nan1 == nan2 ? 0 : (nan1 ? 1 : -1);
 		}
 
-		/** <p><des> 获取关键字的值 </des></p> */
-		private Object value(Object o) {
-			return FieldUtil.getFieldValue(o, key);
+		/** <p><des> float 按其十进制形式转换为 double, 如 0.1f 转换为 0.1, 与以 Float.toString 构造 BigDecimal 比较的顺序一致 </des></p> */
+		private static double floatValue(float value){
+			return Double.parseDouble(Float.toString(value));
+		}
+
+		/** <p><des> 比较整数与浮点数关键字 </des></p> */
+		private int mixedCompare(int i, int j){
+			if(kinds[i] == DOUBLE){
+				return -mixedCompare(j, i);
+			}
+			double d = Double.longBitsToDouble(values[j]);
+			if(d != d || Double.isInfinite(d)){
+				return d < 0 ? 1 : -1; // NaN and positive infinity are greater
+			}
+			return numberCompare(values[i], d);
+		}
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 比较器。提取单个关键字并比较两关键字的大小
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-06-08
+	 */
+	static class SimpleComparator extends KeySorter {
+
+		// the key word
+		private String key;
+		// the type of key word
+		private KeyType keyType;
+		// asc or desc
+		private boolean isAsc;
+		// the extracted key values
+		private Object[] keys;
+		
+		public SimpleComparator(Class<?> entityClass, String key, SortCode sortKey, int size){
+			this.key = key;
+			isAsc = SortCode.equalsCode(sortKey, SortCode.ASC);
+			this.keyType = KeyType.valueOf(FieldUtil.getFieldType(entityClass, key));
+			if(keyType == KeyType.UNDEFINED){
+				throw new ExecutetimeException(key + " field type is not supported for sorting.");
+			}
+			this.keys = new Object[size];
+		}
+
+		/** <p><des> 提取区间 [from, to) 内元素的关键字值, 每个元素只读取一次, 字符串关键字同时转换为比较形式 </des></p> */
+		@Override
+		void extract(Object[] elements, int from, int to){
+			Class<?> entityClass = null;
+			Field field = null;
+			try {
+				for(int i = from; i < to; i++){
+					Object element = elements[i];
+					if(element.getClass() != entityClass){ // resolve the field once per class
+						entityClass = element.getClass();
+						field = sortField(entityClass, key);
+					}
+					keys[i] = collationKey(field.get(element));
+				}
+			} catch (IllegalAccessException e) {
+				throw new ExecutetimeException(e);
+			}
+		}
+
+		/** <p><des> 根据关键字的类型比较关键字值的大小, 关键字值为null时视为最小 </des></p> */
+		@Override
+		int compare(int i, int j){
+			Object k1 = keys[i], k2 = keys[j];
+			int result;
+			if(k1 == null || k2 == null){
+				result = k1 == k2 ? 0 : (k1 == null ? -1 : 1);
+			}else{
+				result = compareValue(k1, k2);
+			}
+			return isAsc ? result : -result;
 		}
 		
 		/**
@@ -4,6 +4,7 @@ import java.nio.charset.Charset;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import fan.core.exception.ExecutetimeException;
 import fan.core.util.code.EncodingCode;
 /**
  * <p> <b> @描述：</b> 
@@ -61,8 +62,7 @@ public class ConvertUtil {
 		// primitive & boxer type
 		if(type.isPrimitive() || boxerPrimitiveMap.containsKey(type)){
 			Class<?> key = type.isPrimitive() ? type : boxerPrimitiveMap.get(type);
-			String methodName = key + "Value";
-			return MethodUtil.invokeMethod(ConvertUtil.class, methodName, value);
+			return primitiveValue(value, key);
 		}
 		// Date type ( try to parse the value pattern )
 		if(ClassUtil.isInstanceOf(type, Date.class)){
@@ -123,6 +123,25 @@ public class ConvertUtil {
 		return Boolean.parseBoolean(value);
 	}
 	
+	/** <p><des> 转换字符串为基本类型的值 </des></p> */
+	private static Object primitiveValue(String value, Class<?> primitive){
+		try {
+			switch (FieldPlan.kindOf(primitive)) {
+				case FieldPlan.INT : return intValue(value);
+				case FieldPlan.LONG : return longValue(value);
+				case FieldPlan.DOUBLE : return doubleValue(value);
+				case FieldPlan.BOOLEAN : return booleanValue(value);
+				case FieldPlan.FLOAT : return floatValue(value);
+				case FieldPlan.SHORT : return shortValue(value);
+				case FieldPlan.BYTE : return byteValue(value);
+				case FieldPlan.CHAR : return charValue(value);
+			}
+		} catch (RuntimeException e) {
+			throw new ExecutetimeException(e);
+		}
+		throw new ExecutetimeException("can not convert value to " + primitive);
+	}
+	
 	static {
 		primitiveBoxerMap = new HashMap<Class<?>, Class<?>>(9, 1);
 		primitiveBoxerMap.put(Byte.TYPE, Byte.class);
@@ -0,0 +1,185 @@
+package fan.core.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 字段访问计划。按类编译一次并缓存, 包含类(包括父类)全部实例字段的可访问字段对象, 名称, 类型及基本类型标识,
+ * 供对象与Map的转换, 深拷贝, 比较等按字段遍历对象的操作使用。字段顺序与 FieldUtil.getInstanceFields 一致,
+ * 父类中被子类同名字段隐藏的字段以及编译器生成的字段不包含在内
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-18
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class FieldPlan {
+
+	// kinds of field type
+	static final int OBJECT = 0, BOOLEAN = 1, BYTE = 2, CHAR = 3, SHORT = 4, INT = 5, LONG = 6, FLOAT = 7, DOUBLE = 8;
+
+	// compiled plans, cached by class
+	private static final ReferenceCache<Class<?>, FieldPlan> plans = new ReferenceCache<Class<?>, FieldPlan>();
+
+	final Class<?> type;
+	final Field[] fields;
+	final String[] names;
+	final Class<?>[] types;
+	final int[] kinds;
+	final boolean[] transients;
+	// field name -> field index
+	private final Map<String, Integer> indexes;
+
+	private FieldPlan(Class<?> type){
+		List<Field> accepted = new ArrayList<Field>();
+		Map<String, Integer> indexes = new HashMap<String, Integer>();
+		for(Field field : FieldUtil.getInstanceFields(type)){
+			if(field.isSynthetic() || indexes.containsKey(field.getName())){
+				continue; // compiler generated or hidden by subclass
+			}
+			indexes.put(field.getName(), accepted.size());
+			accepted.add(field);
+		}
+		int size = accepted.size();
+		this.type = type;
+		this.fields = accepted.toArray(new Field[size]);
+		this.names = new String[size];
+		this.types = new Class<?>[size];
+		this.kinds = new int[size];
+		this.transients = new boolean[size];
+		for(int i = 0; i < size; i++){
+			names[i] = fields[i].getName();
+			types[i] = fields[i].getType();
+			kinds[i] = kindOf(types[i]);
+			transients[i] = Modifier.isTransient(fields[i].getModifiers());
+		}
+		this.indexes = indexes;
+	}
+
+	/** <p><des> 获取类的字段访问计划, 按类缓存, 不阻止类加载器被回收 </des></p> */
+	static FieldPlan of(Class<?> type){
+		long start = ReflectionMetrics.start();
+		FieldPlan plan = plans.get(type);
+		if(plan == null){
+			plan = plans.putIfAbsent(type, new FieldPlan(type));
+			ReflectionMetrics.miss(type, start);
+		}else{
+			ReflectionMetrics.hit(type, start);
+		}
+		return plan;
+	}
+
+	/** <p><des> 字段个数 </des></p> */
+	int size(){
+		return fields.length;
+	}
+
+	/** <p><des> 字段索引, 若不存在则返还 -1 </des></p> */
+	int indexOf(String name){
+		Integer index = indexes.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/** <p><des> 获取字段值 </des></p> */
+	Object get(Object target, int index){
+		try {
+			return fields[index].get(target);
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 设置字段值, 值的类型与字段不符时抛出 ExecutetimeException </des></p> */
+	void set(Object target, int index, Object value){
+		try {
+			fields[index].set(target, value);
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		} catch (IllegalArgumentException e) {
+			throw new ExecutetimeException(e, StringUtil.parsePlaceholder("can not set ? to field ? of type ?",
+				value == null ? "null" : value.getClass().getSimpleName(), names[index], types[index].getSimpleName()));
+		}
+	}
+
+	/** <p><des> 获取整数类型(byte, short, char, int, long, boolean)字段的值, 不装箱 </des></p> */
+	long getLong(Object target, int index){
+		Field field = fields[index];
+		try {
+			switch (kinds[index]) {
+				case INT : return field.getInt(target);
+				case LONG : return field.getLong(target);
+				case BOOLEAN : return field.getBoolean(target) ? 1 : 0;
+				case SHORT : return field.getShort(target);
+				case BYTE : return field.getByte(target);
+				case CHAR : return field.getChar(target);
+				default : throw new ExecutetimeException(names[index] + " is not an integral field");
+			}
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 获取浮点类型(float, double)字段的值, 不装箱 </des></p> */
+	double getDouble(Object target, int index){
+		try {
+			return kinds[index] == FLOAT ? fields[index].getFloat(target) : fields[index].getDouble(target);
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 复制基本类型字段的值, 不装箱 </des></p> */
+	void copyPrimitive(Object source, Object target, int index){
+		Field field = fields[index];
+		try {
+			switch (kinds[index]) {
+				case INT : field.setInt(target, field.getInt(source)); break;
+				case LONG : field.setLong(target, field.getLong(source)); break;
+				case DOUBLE : field.setDouble(target, field.getDouble(source)); break;
+				case BOOLEAN : field.setBoolean(target, field.getBoolean(source)); break;
+				case FLOAT : field.setFloat(target, field.getFloat(source)); break;
+				case SHORT : field.setShort(target, field.getShort(source)); break;
+				case BYTE : field.setByte(target, field.getByte(source)); break;
+				case CHAR : field.setChar(target, field.getChar(source)); break;
+				default : field.set(target, field.get(source));
+			}
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		} catch (IllegalArgumentException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 获取字段的基本类型标识 </des></p> */
+	static int kindOf(Class<?> type){
+		if(!type.isPrimitive()) return OBJECT;
+		if(type == int.class) return INT;
+		if(type == long.class) return LONG;
+		if(type == double.class) return DOUBLE;
+		if(type == boolean.class) return BOOLEAN;
+		if(type == float.class) return FLOAT;
+		if(type == short.class) return SHORT;
+		if(type == byte.class) return BYTE;
+		return type == char.class ? CHAR : OBJECT;
+	}
+
+	/** <p><des> 判定类型是否可以视为一个按字段访问的 POJO, 即非基本类型, 数组, 枚举, 容器及JDK内置类型 </des></p> */
+	static boolean isBean(Class<?> type){
+		if(type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface()){
+			return false;
+		}
+		if(Number.class.isAssignableFrom(type) || CharSequence.class.isAssignableFrom(type)
+				|| Date.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type)
+				|| Map.class.isAssignableFrom(type) || Enum.class.isAssignableFrom(type)){
+			return false;
+		}
+		String name = type.getName();
+		return !(name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun."));
+	}
+
+}
@@ -1,9 +1,14 @@
 package fan.core.util;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import fan.core.exception.ExecutetimeException;
 /**
  * <p> <b> @描述：</b> 字段域常用操作工具类
@@ -16,6 +21,9 @@ public class FieldUtil {
 
 	private FieldUtil(){}
 	
+	// all fields of class (include super class), cached by class
+	private static final ReferenceCache<Class<?>, ClassFields> fieldsCache = new ReferenceCache<Class<?>, ClassFields>();
+	
 	/**
 	 * <p><des> 设置对象(或类)成员属性(或类属性)字段的值 </des></p>
 	 * <p><pre>
@@ -131,16 +139,22 @@ public class FieldUtil {
 	 * @since 0.1.0
 	 */
 	public static Field getAccessibleField(Object object, String fieldName){
-		Class<?> entityClass = object instanceof Class ? (Class<?>) object : object.getClass();
+		Class<?> objectClass = object instanceof Class ? (Class<?>) object : object.getClass();
+		Class<?> entityClass = objectClass;
+		long start = ReflectionMetrics.start();
 		while(entityClass != null){
 			try {
 				Field field = entityClass.getDeclaredField(fieldName);
 				field.setAccessible(true);
+				ReflectionMetrics.miss(objectClass, start);
 				return field;
-			} catch (Throwable e) { /* ignore the thrown exception */ }
+			} catch (Throwable e) { /* ignore the thrown exception */ 
+				ReflectionMetrics.exceptionMiss(objectClass, "field:" + fieldName, start);
+			}
 			/* go to the super class */
 			entityClass = entityClass.getSuperclass();
 		}
+		ReflectionMetrics.miss(objectClass, start);
 		return null;
 	}
 	
@@ -249,7 +263,9 @@ public class FieldUtil {
 	}
 	
 	/**
-	 * <p><des> 获取类声明的字段列表集合(包含父类) </des></p>
+	 * <p><des> 获取类声明的字段列表集合(包含父类)。字段顺序固定为: 子类在前, 父类在后, 同一类中为 Class.getDeclaredFields 的顺序
+	 * (JVM 不保证与源码中的声明顺序一致, 但同一进程内不变); 结果按类缓存(不阻止类加载器被回收), 返还的列表不可修改, 若没有任何字段则返还空列表。
+	 * 列表中的 Field 已设为可访问, 由全部调用方共享, 不要对其调用 setAccessible(false) </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
 	 * 
@@ -263,30 +279,104 @@ public class FieldUtil {
 	 * 
 	 * <b><em>e.g.</em></b>
 	 * List<Field> fields = FieldUtil.getAllFields(Foobar.class);
-	 * <notes>// Object have no field</notes>
+	 * <notes>// Object have no field, []</notes>
+	 * Testing.printlnObject(FieldUtil.getAllFields(Object.class));
 	 * Testing.printlnObject(fields);
 	 * </pre></p>
 	 * @since 0.1.0
 	 * @see fan.core.util.FieldUtil#getDeclaredFields(Class)
 	 */
 	public static List<Field> getAllFields(Class<?> clazz){
-		if(clazz == null){
-			throw new ExecutetimeException("clazz must not be null");
-		}
-		List<Field> fields = new ArrayList<Field>();
-		List<Field> thisClassFields;
-		while(clazz != null){
-			thisClassFields = getDeclaredFields(clazz);
-			if(thisClassFields != null){
-				fields.addAll(thisClassFields);
+		return getClassFields(clazz).all;
+	}
+	
+	/**
+	 * <p><des> 获取类声明的静态字段列表集合(包含父类), 字段顺序与 getAllFields 一致, 结果按类缓存且不可修改, Field 与 getAllFields 共享 </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 * 
+	 * public class Foobar {
+	 * 
+	 *     private int bar;
+	 *     private String baz;
+	 *     private static double version;
+	 * 
+	 * }
+	 * 
+	 * <b><em>e.g.</em></b>
+	 * <notes>// [private static double Foobar.version]</notes>
+	 * Testing.printlnObject(FieldUtil.getStaticFields(Foobar.class));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.FieldUtil#getAllFields(Class)
+	 */
+	public static List<Field> getStaticFields(Class<?> clazz){
+		return getClassFields(clazz).statics;
+	}
+	
+	/**
+	 * <p><des> 获取类声明的实例字段列表集合(包含父类), 字段顺序与 getAllFields 一致, 结果按类缓存且不可修改, Field 与 getAllFields 共享 </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 * 
+	 * public class Foobar {
+	 * 
+	 *     private int bar;
+	 *     private String baz;
+	 *     private static double version;
+	 * 
+	 * }
+	 * 
+	 * <b><em>e.g.</em></b>
+	 * <notes>// [private int Foobar.bar, private String Foobar.baz]</notes>
+	 * Testing.printlnObject(FieldUtil.getInstanceFields(Foobar.class));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.FieldUtil#getAllFields(Class)
+	 */
+	public static List<Field> getInstanceFields(Class<?> clazz){
+		return getClassFields(clazz).instances;
+	}
+	
+	/**
+	 * <p><des> 获取类声明的标注了参数2所表示注解的字段列表集合(包含父类), 字段顺序与 getAllFields 一致, 结果按类缓存且不可修改, Field 与 getAllFields 共享 </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 * 
+	 * public class Foobar {
+	 * 
+	 *     <b>@</b>NotNull
+	 *     private String bar;
+	 *     private String baz;
+	 * 
+	 * }
+	 * 
+	 * <b><em>e.g.</em></b>
+	 * <notes>// [private String Foobar.bar]</notes>
+	 * Testing.printlnObject(FieldUtil.getAnnotatedFields(Foobar.class, NotNull.class));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.FieldUtil#getAllFields(Class)
+	 */
+	public static List<Field> getAnnotatedFields(Class<?> clazz, Class<? extends Annotation> annotationClass){
+		ClassFields classFields = getClassFields(clazz);
+		List<Field> fields = classFields.annotated.get(annotationClass);
+		if(fields == null){
+			List<Field> annotated = new ArrayList<Field>();
+			for(Field field : classFields.all){
+				if(field.isAnnotationPresent(annotationClass)){
+					annotated.add(field);
+				}
 			}
-			clazz = clazz.getSuperclass();
+			fields = immutableList(annotated);
+			classFields.annotated.put(annotationClass, fields);
 		}
-		return fields.size() == 0 ? null : fields;
+		return fields;
 	}
 	
 	/**
-	 * <p><des> 获取类声明的字段名称列表集合(包含父类) </des></p>
+	 * <p><des> 获取类声明的字段名称列表集合(包含父类), 名称顺序与 getAllFields 一致; 
+	 * 结果按类缓存, 返还的列表不可修改, 若没有任何字段则返还空列表 </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
 	 * 
@@ -300,25 +390,78 @@ public class FieldUtil {
 	 * 
 	 * <b><em>e.g.</em></b>
 	 * List<String> fieldNames = FieldUtil.getAllFieldNames(Foobar.class);
-	 * <notes>// Object have no field</notes>
+	 * <notes>// Object have no field, []</notes>
+	 * Testing.printlnObject(FieldUtil.getAllFieldNames(Object.class));
 	 * Testing.printlnObject(fieldNames);
 	 * </pre></p>
 	 * @since 0.1.0
 	 * @see fan.core.util.FieldUtil#getDeclaredFieldNames(Class)
 	 */
 	public static List<String> getAllFieldNames(Class<?> clazz){
+		return getClassFields(clazz).names;
+	}
+	
+	/** <p><des> 获取类的字段缓存 </des></p> */
+	private static ClassFields getClassFields(Class<?> clazz){
 		if(clazz == null){
 			throw new ExecutetimeException("clazz must not be null");
 		}
-		List<Field> fields = getAllFields(clazz);
-		if(fields == null){
-			return null;
+		long start = ReflectionMetrics.start();
+		ClassFields classFields = fieldsCache.get(clazz);
+		if(classFields == null){
+			classFields = fieldsCache.putIfAbsent(clazz, new ClassFields(clazz));
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
 		}
-		List<String> fieldNames = new ArrayList<String>(fields.size());
-		for(Field field : fields){
-			fieldNames.add(field.getName());
+		return classFields;
+	}
+	
+	/** <p><des> 不可修改的列表 </des></p> */
+	private static <E> List<E> immutableList(List<E> list){
+		return list.size() == 0 ? Collections.<E>emptyList() : Collections.unmodifiableList(list);
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 类的字段缓存, 包括全部字段及其静态, 实例, 注解视图
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-15
+	 */
+	private static class ClassFields {
+		
+		final List<Field> all;
+		final List<Field> statics;
+		final List<Field> instances;
+		final List<String> names;
+		final Map<Class<? extends Annotation>, List<Field>> annotated = new ConcurrentHashMap<Class<? extends Annotation>, List<Field>>(4);
+		
+		ClassFields(Class<?> clazz){
+			List<Field> all = new ArrayList<Field>();
+			for(Class<?> current = clazz; current != null; current = current.getSuperclass()){
+				for(Field field : current.getDeclaredFields()){
+					try {
+						field.setAccessible(true);
+					} catch (RuntimeException e) { /* ignore, the field stays inaccessible */ }
+					all.add(field);
+				}
+			}
+			List<Field> statics = new ArrayList<Field>();
+			List<Field> instances = new ArrayList<Field>(all.size());
+			List<String> names = new ArrayList<String>(all.size());
+			for(Field field : all){
+				if(Modifier.isStatic(field.getModifiers())){
+					statics.add(field);
+				}else{
+					instances.add(field);
+				}
+				names.add(field.getName());
+			}
+			this.all = immutableList(all);
+			this.statics = immutableList(statics);
+			this.instances = immutableList(instances);
+			this.names = immutableList(names);
 		}
-		return fieldNames;
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package fan.core.util;
+
+import java.lang.reflect.Field;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 按字段名读取关键字的访问器。缓存最近一次解析的类及其可访问字段, 元素类型相同时不再查找字段,
+ * 可在多个线程间共享
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-28
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class KeyAccessor {
+
+	// the field name
+	final String name;
+	// the last resolved class and field, replaced as a whole
+	private volatile Resolved resolved;
+
+	KeyAccessor(String name){
+		this.name = name;
+	}
+
+	/** <p><des> 读取对象的字段值 </des></p> */
+	Object get(Object element){
+		try {
+			return resolve(element).field.get(element);
+		} catch (IllegalAccessException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 解析元素类的字段, 元素类型与上次相同时直接返还缓存 </des></p> */
+	Resolved resolve(Object element){
+		Resolved current = resolved;
+		if(current == null || current.type != element.getClass()){
+			current = new Resolved(element.getClass(), CollectionUtil.sortField(element.getClass(), name));
+			resolved = current;
+		}
+		return current;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 类及其字段, 以及字段的基本类型标识, 供不装箱读取数值字段
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-28
+	 */
+	static final class Resolved {
+
+		final Class<?> type;
+		final Field field;
+		// FieldPlan kind of the field type
+		final int kind;
+
+		Resolved(Class<?> type, Field field){
+			this.type = type;
+			this.field = field;
+			this.kind = FieldPlan.kindOf(field.getType());
+		}
+	}
+
+}
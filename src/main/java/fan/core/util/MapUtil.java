@@ -5,6 +5,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import fan.core.exception.ExecutetimeException;
+import fan.core.util.collection.BiMap;
+import fan.core.util.collection.CompactMap;
+import fan.core.util.collection.ConcurrentBiMap;
+import fan.core.util.collection.ConcurrentCounterMap;
+import fan.core.util.collection.HashBiMap;
 /**
  * <p> <b> @描述：</b> 散列表常用操作工具类
  * <p> <b> @作者：</b> fancore
@@ -57,7 +62,7 @@ public class MapUtil {
 	}
 	
 	/**
-	 * <p><des> 根据Value查找Key, 要求Value在散列表中是唯一的 </des></p>
+	 * <p><des> 根据Value查找Key, 要求Value在散列表中是唯一的。参数为 BiMap 时直接查找反向表, 否则遍历一次键值对 </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
 	 * Map&lt;String, Object&gt; map = new HashMap&lt;String, Object&gt;();
@@ -68,16 +73,18 @@ public class MapUtil {
 	 * Testing.printlnObject(key);
 	 * </pre></p>
 	 * @since 0.1.0
+	 * @see fan.core.util.MapUtil#newBiMap()
 	 */
+	@SuppressWarnings("unchecked")
 	public static <K, V> K findKey(Map<K, V> map, V value){
-		if(!map.containsValue(value)){
-			return null;
+		if(map instanceof BiMap){
+			return ((BiMap<K, V>) map).getKey(value);
 		}
 		K key = null;
 		int counts = 0;
-		for(K k : map.keySet()){
-			if(map.get(k).equals(value)){
-				key = k;
+		for(Map.Entry<K, V> entry : map.entrySet()){
+			if(value == null ? entry.getValue() == null : value.equals(entry.getValue())){
+				key = entry.getKey();
 				counts++;
 			}
 		}
@@ -88,7 +95,7 @@ public class MapUtil {
 	}
 	
 	/**
-	 * <p><des> 对调 Key&Value, 要求Value在散列表中是唯一的 </des></p>
+	 * <p><des> 对调 Key&Value, 要求Value在散列表中是唯一的。参数为 BiMap 时返还其反向视图, 不复制, 修改相互可见 </des></p>
 	 * <p><pre>
 	 * <b><em>e.g.</em></b>
 	 * Map&lt;String, Object&gt; map1 = new HashMap&lt;String, Object&gt;();
@@ -105,18 +112,82 @@ public class MapUtil {
 	 * @since 0.1.0
 	 */
 	public static <K, V> Map<V, K> reverseKeyValue(Map<K, V> map){
-		Map<V, K> mapping = new HashMap<V, K>();
-		V value;
-		for(K key : map.keySet()){
-			value = map.get(key);
-			if(mapping.containsKey(value)){
+		if(map instanceof BiMap){
+			return ((BiMap<K, V>) map).inverse();
+		}
+		Map<V, K> mapping = new HashMap<V, K>(Math.max(16, (int) (map.size() / .75f) + 1));
+		for(Map.Entry<K, V> entry : map.entrySet()){
+			if(mapping.containsKey(entry.getValue())){
 				throw new ExecutetimeException("found different key have the same value, the value must be unique");
 			}
-			mapping.put(value, key);
+			mapping.put(entry.getValue(), entry.getKey());
 		}
 		return mapping;
 	}
 	
+	/**
+	 * <p><des> 创建一个新的双向映射, 值也是唯一的, 由值查找键只需一次散列查找, 放入已被其他键使用的值时抛出异常。不是线程安全的 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * BiMap&lt;String, String&gt; sexes = MapUtil.newBiMap();
+	 * sexes.put("M", "男");
+	 * sexes.put("F", "女");
+	 * <notes>// F</notes>
+	 * Testing.printlnObject(MapUtil.findKey(sexes, "女"));
+	 * <notes>// {男=M, 女=F}</notes>
+	 * Testing.printlnObject(sexes.inverse());
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.collection.HashBiMap
+	 */
+	public static <K, V> BiMap<K, V> newBiMap(){
+		return new HashBiMap<K, V>();
+	}
+	
+	/**
+	 * <p><des> 复制参数Map为新的双向映射, 值重复时抛出异常 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * BiMap&lt;String, String&gt; codes = MapUtil.newBiMap(loadCodes());
+	 * Testing.printlnObject(codes.getKey("启用"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <K, V> BiMap<K, V> newBiMap(Map<? extends K, ? extends V> map){
+		return new HashBiMap<K, V>(map);
+	}
+	
+	/**
+	 * <p><des> 创建一个新的线程安全的双向映射, 适合多个线程共享的字典表, 查找不加锁, 不接受null键与null值 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * private static final BiMap&lt;String, String&gt; REGIONS = MapUtil.newConcurrentBiMap();
+	 * REGIONS.put("110000", "北京");
+	 * Testing.printlnObject(REGIONS.getKey("北京"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.collection.ConcurrentBiMap
+	 */
+	public static <K, V> BiMap<K, V> newConcurrentBiMap(){
+		return new ConcurrentBiMap<K, V>();
+	}
+	
+	/**
+	 * <p><des> 创建一个新的线程安全的计数表, 可替代多个线程共用的 synchronized 计数 Map, 累加不加锁,
+	 * 支持快照, 取计数最大的键, 按时间窗口取出清零与按比例衰减 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * private static final ConcurrentCounterMap&lt;String&gt; PATHS = MapUtil.newCounterMap();
+	 * PATHS.increment(request.getRequestURI());
+	 * Testing.printlnObject(PATHS.top(10));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.collection.ConcurrentCounterMap
+	 */
+	public static <K> ConcurrentCounterMap<K> newCounterMap(){
+		return new ConcurrentCounterMap<K>();
+	}
+	
 	/**
 	 * <p><des> 创建一个新的初始容量为16, 加载因子为0.75的Map实例 </des></p>
 	 * <p><pre>
@@ -145,6 +216,25 @@ public class MapUtil {
 		return new HashMap<K, V>(initialCapacity, (float)loadFactor);
 	}
 	
+	/**
+	 * <p><des> 复制参数Map为不可修改的紧凑Map, 适合键固定的只读映射表, 比HashMap占用更少的内存, get 通常只比较一次。
+	 * 遍历顺序与参数Map相同, 不接受null键 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Integer&gt; levels = MapUtil.newMap();
+	 * levels.put("debug", 1);
+	 * levels.put("info", 2);
+	 * Map&lt;String, Integer&gt; compact = MapUtil.compactMap(levels);
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(compact.get("info"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.collection.CompactMap
+	 */
+	public static <K, V> Map<K, V> compactMap(Map<? extends K, ? extends V> map){
+		return CompactMap.copyOf(map);
+	}
+	
 	/**
 	 * <p><des> Map的Key作为一个List </des></p>
 	 * <p><pre>
@@ -1,10 +1,14 @@
 package fan.core.util;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import fan.core.exception.ExecutetimeException;
 /**
  * <p> <b> @描述：</b> 方法常用操作工具类
@@ -17,6 +21,9 @@ public class MethodUtil {
 
 	private MethodUtil(){}
 	
+	// all methods of class (include super class), cached by class
+	private static final ReferenceCache<Class<?>, ClassMethods> methodsCache = new ReferenceCache<Class<?>, ClassMethods>();
+	
 	/**
 	 * <p><des> 调用对象(或类)的setter成员方法(或类方法) </des></p>
 	 * <p><pre>
@@ -281,16 +288,22 @@ public class MethodUtil {
 	 * @since 0.1.0
 	 */
 	public static Method getAccessibleMethod(Object object, String methodName, Class<?>... types){
-		Class<?> entityClass = object instanceof Class ? (Class<?>) object : object.getClass();
+		Class<?> objectClass = object instanceof Class ? (Class<?>) object : object.getClass();
+		Class<?> entityClass = objectClass;
+		long start = ReflectionMetrics.start();
 		while(entityClass != null){
 			try {
 				Method target = entityClass.getDeclaredMethod(methodName, types);
 				target.setAccessible(true);
+				ReflectionMetrics.miss(objectClass, start);
 				return target;
-			} catch (Throwable e) { /* ignore the thrown exception */ }
+			} catch (Throwable e) { /* ignore the thrown exception */ 
+				ReflectionMetrics.exceptionMiss(objectClass, "method:" + methodName, start);
+			}
 			/* go to the super class */
 			entityClass = entityClass.getSuperclass();
 		}
+		ReflectionMetrics.miss(objectClass, start);
 		return null;
 	}
 	
@@ -350,7 +363,9 @@ public class MethodUtil {
 	}
 	
 	/**
-	 * <p><des> 获取类声明的方法列表集合(包含父类) </des></p>
+	 * <p><des> 获取类声明的方法列表集合(包含父类)。方法顺序固定为: 子类在前, 父类在后; 
+	 * 结果按类缓存(不阻止类加载器被回收), 返还的列表不可修改, 若没有任何方法则返还空列表。
+	 * 列表中的 Method 已设为可访问, 由全部调用方共享, 对其调用 setAccessible 会影响其他调用方 </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
 	 * 
@@ -366,23 +381,47 @@ public class MethodUtil {
 	 * @see fan.core.util.MethodUtil#getDeclaredMethods(Class)
 	 */
 	public static List<Method> getAllMethods(Class<?> clazz){
-		if(clazz == null){
-			throw new ExecutetimeException("clazz must not be null");
-		}
-		List<Method> methods = new ArrayList<Method>();
-		List<Method> thisClassMethod;
-		while(clazz != null){
-			thisClassMethod = getDeclaredMethods(clazz);
-			if(thisClassMethod != null){
-				methods.addAll(thisClassMethod);
+		return getClassMethods(clazz).all;
+	}
+	
+	/**
+	 * <p><des> 获取类声明的标注了参数2所表示注解的方法列表集合(包含父类), 方法顺序与 getAllMethods 一致, 结果按类缓存且不可修改, Method 与 getAllMethods 共享 </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 * 
+	 * public class Bar {
+	 * 
+	 *     <b>@</b>PostConstruct
+	 *     void init(){}
+	 * 
+	 * }
+	 * 
+	 * <b><em>e.g.</em></b>
+	 * <notes>// [void Bar.init()]</notes>
+	 * Testing.printlnObject(MethodUtil.getAnnotatedMethods(Bar.class, PostConstruct.class));
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.MethodUtil#getAllMethods(Class)
+	 */
+	public static List<Method> getAnnotatedMethods(Class<?> clazz, Class<? extends Annotation> annotationClass){
+		ClassMethods classMethods = getClassMethods(clazz);
+		List<Method> methods = classMethods.annotated.get(annotationClass);
+		if(methods == null){
+			List<Method> annotated = new ArrayList<Method>();
+			for(Method method : classMethods.all){
+				if(method.isAnnotationPresent(annotationClass)){
+					annotated.add(method);
+				}
 			}
-			clazz = clazz.getSuperclass();
+			methods = immutableList(annotated);
+			classMethods.annotated.put(annotationClass, methods);
 		}
-		return methods.size() == 0 ? null : methods;
+		return methods;
 	}
 	
 	/**
-	 * <p><des> 获取类声明的方法名称列表集合(包含父类) </des></p>
+	 * <p><des> 获取类声明的方法名称列表集合(包含父类), 名称顺序与 getAllMethods 一致; 
+	 * 结果按类缓存, 返还的列表不可修改, 若没有任何方法则返还空列表 </des></p>
 	 * <p><pre>
 	 * <b><em>Definition Class：</em></b>
 	 * 
@@ -398,15 +437,59 @@ public class MethodUtil {
 	 * @see fan.core.util.MethodUtil#getDeclaredMethodNames(Class)
 	 */
 	public static List<String> getAllMethodNames(Class<?> clazz){
+		return getClassMethods(clazz).names;
+	}
+	
+	/** <p><des> 获取类的方法缓存 </des></p> */
+	private static ClassMethods getClassMethods(Class<?> clazz){
 		if(clazz == null){
 			throw new ExecutetimeException("clazz must not be null");
 		}
-		List<Method> methods = getAllMethods(clazz);
-		List<String> methodNames = new ArrayList<String>(methods.size());
-		for(Method method : methods){
-			methodNames.add(method.getName());
+		long start = ReflectionMetrics.start();
+		ClassMethods classMethods = methodsCache.get(clazz);
+		if(classMethods == null){
+			classMethods = methodsCache.putIfAbsent(clazz, new ClassMethods(clazz));
+			ReflectionMetrics.miss(clazz, start);
+		}else{
+			ReflectionMetrics.hit(clazz, start);
+		}
+		return classMethods;
+	}
+	
+	/** <p><des> 不可修改的列表 </des></p> */
+	private static <E> List<E> immutableList(List<E> list){
+		return list.size() == 0 ? Collections.<E>emptyList() : Collections.unmodifiableList(list);
+	}
+	
+	/**
+	 * <p> <b> @描述：</b> 类的方法缓存, 包括全部方法及其注解视图
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-15
+	 */
+	private static class ClassMethods {
+		
+		final List<Method> all;
+		final List<String> names;
+		final Map<Class<? extends Annotation>, List<Method>> annotated = new ConcurrentHashMap<Class<? extends Annotation>, List<Method>>(4);
+		
+		ClassMethods(Class<?> clazz){
+			List<Method> all = new ArrayList<Method>();
+			for(Class<?> current = clazz; current != null; current = current.getSuperclass()){
+				for(Method method : current.getDeclaredMethods()){
+					try {
+						method.setAccessible(true);
+					} catch (RuntimeException e) { /* ignore, the method stays inaccessible */ }
+					all.add(method);
+				}
+			}
+			List<String> names = new ArrayList<String>(all.size());
+			for(Method method : all){
+				names.add(method.getName());
+			}
+			this.all = immutableList(all);
+			this.names = immutableList(names);
 		}
-		return methodNames;
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package fan.core.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+/**
+ * <p> <b> @描述：</b> 对象差异。由 ObjectUtil.diff 产生, 以位集记录发生变化的字段, 位的索引为字段在类(包括父类)实例字段中的序号,
+ * 可选的记录字段的旧值与新值, 嵌套的 POJO 字段发生变化时记录其嵌套差异
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-22
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class ObjectDiff {
+
+	// nested path separator
+	private static final char SEPARATOR = '.';
+
+	private final FieldPlan plan;
+	// changed field indexes
+	private final BitSet changed;
+	// old and new values, null if values are not recorded
+	private final Object[] oldValues;
+	private final Object[] newValues;
+	// nested diffs of the changed POJO fields, null if no nested diff
+	private final ObjectDiff[] nested;
+
+	ObjectDiff(FieldPlan plan, BitSet changed, Object[] oldValues, Object[] newValues, ObjectDiff[] nested){
+		this.plan = plan;
+		this.changed = changed;
+		this.oldValues = oldValues;
+		this.newValues = newValues;
+		this.nested = nested;
+	}
+
+	/**
+	 * <p><des> 比较的对象类型 </des></p>
+	 * @since 0.3.0
+	 */
+	public Class<?> getType(){
+		return plan.type;
+	}
+
+	/**
+	 * <p><des> 是否有字段发生变化 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isChanged(){
+		return !changed.isEmpty();
+	}
+
+	/**
+	 * <p><des> 参数所表示的字段是否发生变化, 字段不存在时返还false </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isChanged(String fieldName){
+		int index = plan.indexOf(fieldName);
+		return index != -1 && changed.get(index);
+	}
+
+	/**
+	 * <p><des> 发生变化的字段个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int getChangedCount(){
+		return changed.cardinality();
+	}
+
+	/**
+	 * <p><des> 发生变化的字段位集的副本, 位的索引即字段序号, 序号可通过 getFieldName 转换为字段名 </des></p>
+	 * @since 0.3.0
+	 */
+	public BitSet getChangedBits(){
+		return (BitSet) changed.clone();
+	}
+
+	/**
+	 * <p><des> 字段序号对应的字段名 </des></p>
+	 * @since 0.3.0
+	 */
+	public String getFieldName(int index){
+		return plan.names[index];
+	}
+
+	/**
+	 * <p><des> 发生变化的字段名, 顺序与 FieldUtil.getInstanceFields 一致 </des></p>
+	 * @since 0.3.0
+	 */
+	public List<String> getChangedFields(){
+		List<String> fields = new ArrayList<String>(changed.cardinality());
+		for(int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)){
+			fields.add(plan.names[i]);
+		}
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * <p><des> 发生变化的字段路径, 嵌套 POJO 的字段以 "字段.嵌套字段" 表示 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ObjectDiff diff = ObjectUtil.diff(origin, user);
+	 * Testing.printlnObject(diff.getChangedPaths());
+	 * <b><em>output look like：</em></b>
+	 * <output>[name, address.city]</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public List<String> getChangedPaths(){
+		List<String> paths = new ArrayList<String>(changed.cardinality());
+		appendPaths(null, paths);
+		return Collections.unmodifiableList(paths);
+	}
+
+	/**
+	 * <p><des> 是否记录了字段的旧值与新值 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean hasValues(){
+		return oldValues != null;
+	}
+
+	/**
+	 * <p><des> 发生变化字段的旧值, 未记录值或字段未发生变化时返还null </des></p>
+	 * @since 0.3.0
+	 */
+	public Object getOldValue(String fieldName){
+		return value(oldValues, fieldName);
+	}
+
+	/**
+	 * <p><des> 发生变化字段的新值, 未记录值或字段未发生变化时返还null </des></p>
+	 * @since 0.3.0
+	 */
+	public Object getNewValue(String fieldName){
+		return value(newValues, fieldName);
+	}
+
+	/**
+	 * <p><des> 嵌套 POJO 字段的差异, 仅当字段的新旧值都不为null且类型相同时存在, 否则返还null </des></p>
+	 * @since 0.3.0
+	 */
+	public ObjectDiff getNested(String fieldName){
+		int index = plan.indexOf(fieldName);
+		return index == -1 || nested == null ? null : nested[index];
+	}
+
+	@Override
+	public String toString() {
+		return plan.type.getSimpleName() + getChangedPaths();
+	}
+
+	/** <p><des> 收集发生变化的字段路径 </des></p> */
+	private void appendPaths(String prefix, List<String> paths){
+		for(int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)){
+			String path = prefix == null ? plan.names[i] : prefix + SEPARATOR + plan.names[i];
+			if(nested != null && nested[i] != null){
+				nested[i].appendPaths(path, paths);
+			}else{
+				paths.add(path);
+			}
+		}
+	}
+
+	/** <p><des> 获取发生变化字段的值 </des></p> */
+	private Object value(Object[] values, String fieldName){
+		int index = plan.indexOf(fieldName);
+		return values == null || index == -1 ? null : values[index];
+	}
+
+}
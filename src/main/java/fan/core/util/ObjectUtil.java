@@ -0,0 +1,377 @@
+package fan.core.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 对象常用操作工具类。按类编译并缓存 equals, hashCode, toString 的字段比较策略,
+ * 可替代逐次遍历 FieldUtil.getAllFields 的反射实现
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-21
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class ObjectUtil {
+
+	private ObjectUtil(){}
+
+	// equality strategies, cached by class
+	private static final ReferenceCache<Class<?>, Strategy> strategies = new ReferenceCache<Class<?>, Strategy>();
+
+	/**
+	 * <p><des> 按字段判定两个对象是否相等。两个对象必须是同一个类的实例, 比较全部非 transient 的实例字段(包括父类),
+	 * 基本类型字段不装箱直接比较, 并且先比较基本类型字段, 再比较字符串, 包装类型及枚举字段, 最后比较其余字段, 一旦发现不相等立即返还。
+	 * 数组字段按元素比较, 其余字段使用其自身的 equals </des></p>
+	 * <p><pre>
+	 * <b><em>Definition Class：</em></b>
+	 *
+	 * public class User {
+	 *
+	 *     private int id;
+	 *     private String name;
+	 *
+	 *     <b>@</b>Override
+	 *     public boolean equals(Object obj) {
+	 *         return ObjectUtil.equals(this, obj);
+	 *     }
+	 *
+	 *     <b>@</b>Override
+	 *     public int hashCode() {
+	 *         return ObjectUtil.hashCode(this);
+	 *     }
+	 *
+	 *     <b>@</b>Override
+	 *     public String toString() {
+	 *         return ObjectUtil.toString(this);
+	 *     }
+	 *
+	 * }
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static boolean equals(Object o1, Object o2){
+		if(o1 == o2){
+			return true;
+		}
+		if(o1 == null || o2 == null || o1.getClass() != o2.getClass()){
+			return false;
+		}
+		return strategy(o1.getClass()).equals(o1, o2);
+	}
+
+	/**
+	 * <p><des> 按字段计算对象的散列码, 参与计算的字段与 equals 一致, 特别的, 若参数为null, 则返还0 </des></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ObjectUtil#equals(Object, Object)
+	 */
+	public static int hashCode(Object object){
+		if(object == null){
+			return 0;
+		}
+		return strategy(object.getClass()).hashCode(object);
+	}
+
+	/**
+	 * <p><des> 按字段返还一个表示该对象的字符串, 参与的字段与 equals 一致, 字段顺序与 FieldUtil.getInstanceFields 一致 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Testing.printlnObject(ObjectUtil.toString(user));
+	 * <b><em>output look like：</em></b>
+	 * <output>User[id=1, name=fancore]</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ObjectUtil#appendTo(Object, Appendable)
+	 */
+	public static String toString(Object object){
+		StringBuilder builder = new StringBuilder(64);
+		appendTo(object, builder);
+		return builder.toString();
+	}
+
+	/**
+	 * <p><des> 按字段将表示该对象的字符串写入参数2, 格式与 toString 一致, 不产生中间字符串 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * StringBuilder log = new StringBuilder("saving ");
+	 * ObjectUtil.appendTo(user, log);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static void appendTo(Object object, Appendable out){
+		try {
+			if(object == null){
+				out.append("null");
+			}else{
+				strategy(object.getClass()).appendTo(object, out);
+			}
+		} catch (IOException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/**
+	 * <p><des> 比较同一个类的两个实例, 返还发生变化的字段, 不记录字段值。参与比较的字段与 equals 一致 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ObjectDiff diff = ObjectUtil.diff(origin, user);
+	 * if(diff.isChanged()){
+	 *     dao.update(user, diff.getChangedFields());
+	 * }
+	 * </pre></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.ObjectUtil#diff(Object, Object, boolean)
+	 */
+	public static ObjectDiff diff(Object origin, Object current){
+		return diff(origin, current, false);
+	}
+
+	/**
+	 * <p><des> 比较同一个类的两个实例, 返还发生变化的字段, 若参数3为true, 则同时记录发生变化字段的旧值与新值。
+	 * 基本类型字段不装箱比较; 数组按元素比较, 集合与Map按其自身的 equals 比较;
+	 * 新旧值都不为null且类型相同的嵌套 POJO 字段将递归比较, 其差异可通过 ObjectDiff.getNested 获取。
+	 * 注意, 新旧值为同一个引用的字段视为没有变化: 原地修改的嵌套对象, 集合或数组已经没有旧的状态可供比较,
+	 * 因此旧对象应是修改前的副本(如 CloneUtil.deepCopy 的结果), 而不是与新对象共享嵌套对象的浅拷贝 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ObjectDiff diff = ObjectUtil.diff(origin, user, true);
+	 * for(String field : diff.getChangedFields()){
+	 *     Testing.printlnObject(field + " : " + diff.getOldValue(field) + " -> " + diff.getNewValue(field));
+	 * }
+	 * <b><em>output look like：</em></b>
+	 * <output>name : fancore -> fancy</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static ObjectDiff diff(Object origin, Object current, boolean withValues){
+		if(origin == null || current == null){
+			throw new ExecutetimeException("can not diff null object");
+		}
+		if(origin.getClass() != current.getClass()){
+			throw new ExecutetimeException("can not diff " + origin.getClass().getName() + " with " + current.getClass().getName());
+		}
+		return strategy(origin.getClass()).diff(origin, current, withValues, new IdentityHashMap<Object, Object>());
+	}
+
+	/** <p><des> 获取类的比较策略, 按类缓存, 不阻止类加载器被回收 </des></p> */
+	private static Strategy strategy(Class<?> type){
+		Strategy strategy = strategies.get(type);
+		if(strategy == null){
+			strategy = strategies.putIfAbsent(type, new Strategy(FieldPlan.of(type)));
+		}
+		return strategy;
+	}
+
+	/** <p><des> 比较两个字段值, 数组按元素比较 </des></p> */
+	static boolean valueEquals(Object v1, Object v2){
+		if(v1 == v2){
+			return true;
+		}
+		if(v1 == null || v2 == null){
+			return false;
+		}
+		if(v1.getClass().isArray() && v2.getClass().isArray()){
+			return Arrays.deepEquals(new Object[]{v1}, new Object[]{v2});
+		}
+		return v1.equals(v2);
+	}
+
+	/** <p><des> 计算字段值的散列码, 数组按元素计算 </des></p> */
+	static int valueHashCode(Object value){
+		if(value == null){
+			return 0;
+		}
+		if(value.getClass().isArray()){
+			return Arrays.deepHashCode(new Object[]{value}) - 31;
+		}
+		return value.hashCode();
+	}
+
+	/** <p><des> 返还表示数组字段值的字符串 </des></p> */
+	static String valueToString(Object array){
+		String string = Arrays.deepToString(new Object[]{array});
+		return string.substring(1, string.length() - 1);
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 类的比较策略。按比较代价排列字段, 基本类型字段在前
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-21
+	 */
+	private static class Strategy {
+
+		private final FieldPlan plan;
+		// field indexes in declaration order
+		private final int[] declared;
+		// field indexes in comparison order
+		private final int[] ordered;
+
+		Strategy(FieldPlan plan){
+			this.plan = plan;
+			List<Integer> primitives = new ArrayList<Integer>();
+			List<Integer> simples = new ArrayList<Integer>();
+			List<Integer> others = new ArrayList<Integer>();
+			for(int i = 0; i < plan.size(); i++){
+				if(plan.transients[i]){
+					continue;
+				}
+				Class<?> type = plan.types[i];
+				if(type.isPrimitive()){
+					primitives.add(i);
+				}else if(type == String.class || type.isEnum() || ConvertUtil.boxerPrimitiveMap.containsKey(type)){
+					simples.add(i);
+				}else{
+					others.add(i);
+				}
+			}
+			this.declared = new int[primitives.size() + simples.size() + others.size()];
+			this.ordered = new int[declared.length];
+			primitives.addAll(simples);
+			primitives.addAll(others);
+			for(int i = 0; i < ordered.length; i++){
+				ordered[i] = primitives.get(i);
+			}
+			System.arraycopy(ordered, 0, declared, 0, declared.length);
+			Arrays.sort(declared);
+		}
+
+		boolean equals(Object o1, Object o2){
+			for(int index : ordered){
+				switch (plan.kinds[index]) {
+					case FieldPlan.OBJECT :
+						if(!valueEquals(plan.get(o1, index), plan.get(o2, index))) return false;
+						break;
+					case FieldPlan.FLOAT :
+					case FieldPlan.DOUBLE :
+						if(Double.doubleToLongBits(plan.getDouble(o1, index)) != Double.doubleToLongBits(plan.getDouble(o2, index))) return false;
+						break;
+					default :
+						if(plan.getLong(o1, index) != plan.getLong(o2, index)) return false;
+				}
+			}
+			return true;
+		}
+
+		int hashCode(Object object){
+			int hash = 17;
+			for(int index : declared){
+				int h;
+				switch (plan.kinds[index]) {
+					case FieldPlan.OBJECT :
+						h = valueHashCode(plan.get(object, index));
+						break;
+					case FieldPlan.FLOAT :
+						h = Float.floatToIntBits((float) plan.getDouble(object, index));
+						break;
+					case FieldPlan.DOUBLE :
+						long bits = Double.doubleToLongBits(plan.getDouble(object, index));
+						h = (int) (bits ^ (bits >>> 32));
+						break;
+					case FieldPlan.BOOLEAN :
+						h = plan.getLong(object, index) != 0 ? 1231 : 1237;
+						break;
+					default :
+						long value = plan.getLong(object, index);
+						h = (int) (value ^ (value >>> 32));
+				}
+				hash = 31 * hash + h;
+			}
+			return hash;
+		}
+
+		ObjectDiff diff(Object o1, Object o2, boolean withValues, Map<Object, Object> visiting){
+			visiting.put(o1, o2);
+			int size = plan.size();
+			BitSet changed = new BitSet(size);
+			Object[] oldValues = withValues ? new Object[size] : null;
+			Object[] newValues = withValues ? new Object[size] : null;
+			ObjectDiff[] nested = null;
+			for(int index : ordered){
+				switch (plan.kinds[index]) {
+					case FieldPlan.OBJECT :
+						Object v1 = plan.get(o1, index), v2 = plan.get(o2, index);
+						if(v1 == v2){
+							continue;
+						}
+						if(v1 != null && v2 != null && v1.getClass() == v2.getClass() && FieldPlan.isBean(v1.getClass())){
+							if(visiting.containsKey(v1)){
+								continue; // already being compared on the path
+							}
+							ObjectDiff diff = strategy(v1.getClass()).diff(v1, v2, withValues, visiting);
+							if(!diff.isChanged()){
+								continue;
+							}
+							if(nested == null){
+								nested = new ObjectDiff[size];
+							}
+							nested[index] = diff;
+						}else if(valueEquals(v1, v2)){
+							continue;
+						}
+						changed.set(index);
+						if(withValues){
+							oldValues[index] = v1;
+							newValues[index] = v2;
+						}
+						continue;
+					case FieldPlan.FLOAT :
+					case FieldPlan.DOUBLE :
+						if(Double.doubleToLongBits(plan.getDouble(o1, index)) == Double.doubleToLongBits(plan.getDouble(o2, index))) continue;
+						break;
+					default :
+						if(plan.getLong(o1, index) == plan.getLong(o2, index)) continue;
+				}
+				changed.set(index);
+				if(withValues){
+					oldValues[index] = plan.get(o1, index);
+					newValues[index] = plan.get(o2, index);
+				}
+			}
+			visiting.remove(o1);
+			return new ObjectDiff(plan, changed, oldValues, newValues, nested);
+		}
+
+		void appendTo(Object object, Appendable out) throws IOException {
+			StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : null;
+			out.append(plan.type.getSimpleName()).append('[');
+			for(int i = 0; i < declared.length; i++){
+				int index = declared[i];
+				if(i > 0){
+					out.append(", ");
+				}
+				out.append(plan.names[index]).append('=');
+				switch (plan.kinds[index]) {
+					case FieldPlan.OBJECT :
+						Object value = plan.get(object, index);
+						out.append(value != null && value.getClass().isArray() ? valueToString(value) : String.valueOf(value));
+						break;
+					case FieldPlan.FLOAT :
+					case FieldPlan.DOUBLE :
+						double d = plan.getDouble(object, index);
+						if(builder != null){
+							if(plan.kinds[index] == FieldPlan.FLOAT) builder.append((float) d); else builder.append(d);
+						}else{
+							out.append(plan.kinds[index] == FieldPlan.FLOAT ? String.valueOf((float) d) : String.valueOf(d));
+						}
+						break;
+					case FieldPlan.BOOLEAN :
+						out.append(plan.getLong(object, index) != 0 ? "true" : "false");
+						break;
+					case FieldPlan.CHAR :
+						out.append((char) plan.getLong(object, index));
+						break;
+					default :
+						long l = plan.getLong(object, index);
+						if(builder != null) builder.append(l); else out.append(String.valueOf(l));
+				}
+			}
+			out.append(']');
+		}
+	}
+
+}
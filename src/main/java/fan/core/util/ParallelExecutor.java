@@ -0,0 +1,88 @@
+package fan.core.util;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 并行任务执行器。以一个按需创建的守护线程池执行工具类内部的并行计算(如并行排序),
+ * 线程数与处理器个数一致。任务之间不能互相等待, 调用方线程负责切分任务并合并结果
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-23
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class ParallelExecutor {
+
+	private ParallelExecutor(){}
+
+	// number of available processors
+	private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+	// the shared pool, created on first use
+	private static volatile ExecutorService executor;
+
+	/** <p><des> 并行度, 即处理器个数 </des></p> */
+	static int parallelism(){
+		return PARALLELISM;
+	}
+
+	/** <p><des> 执行全部任务并等待完成, 任务抛出的运行时异常原样抛出, 其余异常包装为 ExecutetimeException </des></p> */
+	static <T> void invokeAll(List<? extends Callable<T>> tasks){
+		try {
+			List<Future<T>> futures = executor().invokeAll(tasks);
+			for(Future<T> future : futures){
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ExecutetimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException){
+				throw (RuntimeException) cause;
+			}
+			if(cause instanceof Error){
+				throw (Error) cause;
+			}
+			throw new ExecutetimeException(cause);
+		}
+	}
+
+	/** <p><des> 获取共享的线程池 </des></p> */
+	private static ExecutorService executor(){
+		ExecutorService result = executor;
+		if(result == null){
+			synchronized (ParallelExecutor.class) {
+				result = executor;
+				if(result == null){
+					executor = result = Executors.newFixedThreadPool(PARALLELISM, new DaemonThreadFactory());
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 守护线程工厂, 线程池不阻止虚拟机退出
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-23
+	 */
+	private static class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "fan-core-parallel-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
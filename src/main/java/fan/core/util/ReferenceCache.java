@@ -0,0 +1,123 @@
+package fan.core.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+/**
+ * <p> <b> @描述：</b> 以类或类加载器为键的反射缓存。键为弱引用, 按同一性比较; 值为软引用, 因为缓存的 Field, Method,
+ * Class 等值总是引用键所在的类加载器, 强引用的值会使弱引用的键永远无法回收。
+ * 插件, Web 应用的类加载器不再被其他地方引用后可以被卸载, 内存紧张时值也可以被回收, 之后重新查找。
+ * 读取不加锁, 可在多个线程间共享
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-06
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class ReferenceCache<K, V> {
+
+	private final ConcurrentMap<Object, SoftReference<V>> entries = new ConcurrentHashMap<Object, SoftReference<V>>();
+	// keys whose referent has been collected
+	private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+	/** <p><des> 返还键对应的值, 不存在或已被回收时返还null </des></p> */
+	V get(K key){
+		expunge();
+		SoftReference<V> reference = entries.get(new Lookup(key));
+		return reference == null ? null : reference.get();
+	}
+
+	/** <p><des> 放入键值对, 键已有未被回收的值时保留原值; 返还缓存中的值 </des></p> */
+	V putIfAbsent(K key, V value){
+		expunge();
+		WeakKey<K> weakKey = new WeakKey<K>(key, queue);
+		SoftReference<V> reference = new SoftReference<V>(value);
+		while(true){
+			SoftReference<V> previous = entries.putIfAbsent(weakKey, reference);
+			if(previous == null){
+				return value;
+			}
+			V existing = previous.get();
+			if(existing != null){
+				return existing;
+			}
+			if(entries.replace(weakKey, previous, reference)){
+				return value;
+			}
+		}
+	}
+
+	/** <p><des> 移除键已被回收的条目 </des></p> */
+	private void expunge(){
+		for(Reference<? extends K> key; (key = queue.poll()) != null; ){
+			entries.remove(key);
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 缓存中保存的键, 弱引用键对象
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-06
+	 */
+	private static final class WeakKey<K> extends WeakReference<K> {
+
+		private final int hash;
+
+		WeakKey(K key, ReferenceQueue<K> queue){
+			super(key, queue);
+			this.hash = System.identityHashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj == this){
+				return true;
+			}
+			Object key = get();
+			if(key == null){
+				return false;
+			}
+			if(obj instanceof WeakKey){
+				return ((WeakKey<?>) obj).get() == key;
+			}
+			return obj instanceof Lookup && ((Lookup) obj).key == key;
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 查找用的键, 不创建引用对象
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-06
+	 */
+	private static final class Lookup {
+
+		private final Object key;
+
+		Lookup(Object key){
+			this.key = key;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(key);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj instanceof WeakKey){
+				return ((WeakKey<?>) obj).get() == key;
+			}
+			return obj instanceof Lookup && ((Lookup) obj).key == key;
+		}
+	}
+
+}
@@ -0,0 +1,374 @@
+package fan.core.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 反射统计。记录 ClassUtil, FieldUtil, MethodUtil 中反射查找的次数, 缓存命中与未命中次数,
+ * 由异常驱动的未命中次数以及耗费的时间, 并按类分组。默认关闭, 可通过 ReflectionMetrics.enable()
+ * 或系统参数 -Dfan.core.reflection.metrics=true 开启, 通过 snapshot() 或 JMX 读取
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-16
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class ReflectionMetrics {
+
+	/** <p><des> JMX 注册名称 </des></p> */
+	public static final String OBJECT_NAME = "fan.core:type=ReflectionMetrics";
+
+	// not recording
+	private static final long DISABLED = -1;
+	// recording or not
+	private static volatile boolean enabled = Boolean.getBoolean("fan.core.reflection.metrics");
+	// counters, grouped by class name
+	private static final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<String, Counter>();
+
+	// snapshot values
+	private final String className;
+	private final long lookups;
+	private final long hits;
+	private final long misses;
+	private final long exceptionMisses;
+	private final long timeNanos;
+	private final Map<String, Long> missingMembers;
+
+	private ReflectionMetrics(String className, long lookups, long hits, long misses,
+			long exceptionMisses, long timeNanos, Map<String, Long> missingMembers){
+		this.className = className;
+		this.lookups = lookups;
+		this.hits = hits;
+		this.misses = misses;
+		this.exceptionMisses = exceptionMisses;
+		this.timeNanos = timeNanos;
+		this.missingMembers = missingMembers;
+	}
+
+	/**
+	 * <p><des> 开启统计 </des></p>
+	 * @since 0.3.0
+	 */
+	public static void enable(){
+		enabled = true;
+	}
+
+	/**
+	 * <p><des> 关闭统计, 已记录的统计信息保留 </des></p>
+	 * @since 0.3.0
+	 */
+	public static void disable(){
+		enabled = false;
+	}
+
+	/**
+	 * <p><des> 是否开启统计 </des></p>
+	 * @since 0.3.0
+	 */
+	public static boolean isEnabled(){
+		return enabled;
+	}
+
+	/**
+	 * <p><des> 清空统计信息 </des></p>
+	 * @since 0.3.0
+	 */
+	public static void reset(){
+		counters.clear();
+	}
+
+	/**
+	 * <p><des> 获取按类分组的统计快照, 按未命中次数降序排列 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * ReflectionMetrics.enable();
+	 * FieldUtil.getFieldValue(foobar, "baz");
+	 * for(ReflectionMetrics metrics : ReflectionMetrics.snapshot()){
+	 *     Testing.printlnObject(metrics);
+	 * }
+	 * <b><em>output look like：</em></b>
+	 * <output>fan.core.test.model.Foobar lookups=1 hits=0 misses=1 exceptionMisses=0 time=0.012ms</output>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static List<ReflectionMetrics> snapshot(){
+		List<ReflectionMetrics> snapshot = new ArrayList<ReflectionMetrics>(counters.size());
+		for(Map.Entry<String, Counter> entry : counters.entrySet()){
+			snapshot.add(entry.getValue().snapshot(entry.getKey()));
+		}
+		Collections.sort(snapshot, new Comparator<ReflectionMetrics>() {
+			@Override
+			public int compare(ReflectionMetrics m1, ReflectionMetrics m2) {
+				long x = m1.misses + m1.exceptionMisses, y = m2.misses + m2.exceptionMisses;
+				return x < y ? 1 : (x == y ? m1.className.compareTo(m2.className) : -1);
+			}
+		});
+		return snapshot;
+	}
+
+	/**
+	 * <p><des> 获取所有类汇总的统计快照 </des></p>
+	 * @since 0.3.0
+	 */
+	public static ReflectionMetrics total(){
+		long lookups = 0, hits = 0, misses = 0, exceptionMisses = 0, timeNanos = 0;
+		for(Counter counter : counters.values()){
+			lookups += counter.lookups.get();
+			hits += counter.hits.get();
+			misses += counter.misses.get();
+			exceptionMisses += counter.exceptionMisses.get();
+			timeNanos += counter.timeNanos.get();
+		}
+		return new ReflectionMetrics("*", lookups, hits, misses, exceptionMisses, timeNanos,
+			Collections.<String, Long>emptyMap());
+	}
+
+	/**
+	 * <p><des> 注册到平台 MBeanServer, 名称为 fan.core:type=ReflectionMetrics, 重复注册将被忽略 </des></p>
+	 * @since 0.3.0
+	 */
+	public static void registerMBean(){
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(!server.isRegistered(name)){
+				server.registerMBean(new StandardMBean(new MetricsMBean(), ReflectionMetricsMBean.class), name);
+			}
+		} catch (Throwable e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/**
+	 * <p><des> 类名, 汇总快照为 "*" </des></p>
+	 * @since 0.3.0
+	 */
+	public String getClassName() {
+		return className;
+	}
+
+	/**
+	 * <p><des> 查找次数 </des></p>
+	 * @since 0.3.0
+	 */
+	public long getLookups() {
+		return lookups;
+	}
+
+	/**
+	 * <p><des> 缓存命中次数 </des></p>
+	 * @since 0.3.0
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * <p><des> 缓存未命中次数, 包括没有缓存的查找 </des></p>
+	 * @since 0.3.0
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * <p><des> 由异常驱动的未命中次数 </des></p>
+	 * @since 0.3.0
+	 */
+	public long getExceptionMisses() {
+		return exceptionMisses;
+	}
+
+	/**
+	 * <p><des> 查找耗费的时间(纳秒) </des></p>
+	 * @since 0.3.0
+	 */
+	public long getTimeNanos() {
+		return timeNanos;
+	}
+
+	/**
+	 * <p><des> 由异常驱动未命中的成员及其次数, 成员以 "field:name" 或 "method:name" 表示 </des></p>
+	 * @since 0.3.0
+	 */
+	public Map<String, Long> getMissingMembers() {
+		return missingMembers;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(className);
+		builder.append(" lookups=").append(lookups);
+		builder.append(" hits=").append(hits);
+		builder.append(" misses=").append(misses);
+		builder.append(" exceptionMisses=").append(exceptionMisses);
+		builder.append(" time=").append(timeNanos / 1000 / 1000.0).append("ms");
+		if(!missingMembers.isEmpty()){
+			builder.append(" missing=").append(missingMembers);
+		}
+		return builder.toString();
+	}
+
+	// the following methods are called by the reflection helpers
+
+	/** <p><des> 开始计时, 未开启统计时返还 DISABLED </des></p> */
+	static long start(){
+		return enabled ? System.nanoTime() : DISABLED;
+	}
+
+	/** <p><des> 记录一次缓存命中 </des></p> */
+	static void hit(Class<?> clazz, long start){
+		if(start != DISABLED){
+			counter(clazz.getName()).record(true, start);
+		}
+	}
+
+	/** <p><des> 记录一次缓存未命中 </des></p> */
+	static void miss(Class<?> clazz, long start){
+		if(start != DISABLED){
+			counter(clazz.getName()).record(false, start);
+		}
+	}
+
+	/** <p><des> 记录一次缓存未命中, 以类名表示 </des></p> */
+	static void miss(String className, long start){
+		if(start != DISABLED){
+			counter(className).record(false, start);
+		}
+	}
+
+	/** <p><des> 记录一次由异常驱动的未命中 </des></p> */
+	static void exceptionMiss(Class<?> clazz, String member, long start){
+		exceptionMiss(clazz.getName(), member, start);
+	}
+
+	/** <p><des> 记录一次由异常驱动的未命中, 以类名表示 </des></p> */
+	static void exceptionMiss(String className, String member, long start){
+		if(start != DISABLED){
+			counter(className).exceptionMiss(member);
+		}
+	}
+
+	/** <p><des> 获取类的计数器 </des></p> */
+	private static Counter counter(String className){
+		Counter counter = counters.get(className);
+		if(counter == null){
+			counter = new Counter();
+			Counter previous = counters.putIfAbsent(className, counter);
+			counter = previous == null ? counter : previous;
+		}
+		return counter;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 单个类的计数器
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-16
+	 */
+	private static class Counter {
+
+		final AtomicLong lookups = new AtomicLong();
+		final AtomicLong hits = new AtomicLong();
+		final AtomicLong misses = new AtomicLong();
+		final AtomicLong exceptionMisses = new AtomicLong();
+		final AtomicLong timeNanos = new AtomicLong();
+		final ConcurrentMap<String, AtomicLong> missingMembers = new ConcurrentHashMap<String, AtomicLong>(4);
+
+		void record(boolean hit, long start){
+			lookups.incrementAndGet();
+			(hit ? hits : misses).incrementAndGet();
+			timeNanos.addAndGet(System.nanoTime() - start);
+		}
+
+		void exceptionMiss(String member){
+			exceptionMisses.incrementAndGet();
+			AtomicLong count = missingMembers.get(member);
+			if(count == null){
+				count = new AtomicLong();
+				AtomicLong previous = missingMembers.putIfAbsent(member, count);
+				count = previous == null ? count : previous;
+			}
+			count.incrementAndGet();
+		}
+
+		ReflectionMetrics snapshot(String className){
+			Map<String, Long> members = new HashMap<String, Long>(missingMembers.size());
+			for(Map.Entry<String, AtomicLong> entry : missingMembers.entrySet()){
+				members.put(entry.getKey(), entry.getValue().get());
+			}
+			return new ReflectionMetrics(className, lookups.get(), hits.get(), misses.get(),
+				exceptionMisses.get(), timeNanos.get(), Collections.unmodifiableMap(members));
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> JMX 管理接口实现
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-16
+	 */
+	private static class MetricsMBean implements ReflectionMetricsMBean {
+
+		@Override
+		public boolean isEnabled() {
+			return ReflectionMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			ReflectionMetrics.enabled = enabled;
+		}
+
+		@Override
+		public long getLookupCount() {
+			return total().lookups;
+		}
+
+		@Override
+		public long getHitCount() {
+			return total().hits;
+		}
+
+		@Override
+		public long getMissCount() {
+			return total().misses;
+		}
+
+		@Override
+		public long getExceptionMissCount() {
+			return total().exceptionMisses;
+		}
+
+		@Override
+		public long getLookupTimeMillis() {
+			return total().timeNanos / 1000 / 1000;
+		}
+
+		@Override
+		public String[] getClassMetrics() {
+			List<ReflectionMetrics> snapshot = snapshot();
+			String[] lines = new String[snapshot.size()];
+			for(int i = 0; i < lines.length; i++){
+				lines[i] = snapshot.get(i).toString();
+			}
+			return lines;
+		}
+
+		@Override
+		public void reset() {
+			ReflectionMetrics.reset();
+		}
+	}
+
+}
@@ -0,0 +1,66 @@
+package fan.core.util;
+/**
+ * <p> <b> @描述：</b> 反射统计的JMX管理接口
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-16
+ * <p> <b> @since 0.3.0 </b>
+ * @see fan.core.util.ReflectionMetrics#registerMBean()
+ */
+public interface ReflectionMetricsMBean {
+
+	/**
+	 * <p><des> 是否开启统计 </des></p>
+	 * @since 0.3.0
+	 */
+	boolean isEnabled();
+
+	/**
+	 * <p><des> 开启或关闭统计 </des></p>
+	 * @since 0.3.0
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * <p><des> 查找总次数 </des></p>
+	 * @since 0.3.0
+	 */
+	long getLookupCount();
+
+	/**
+	 * <p><des> 缓存命中次数 </des></p>
+	 * @since 0.3.0
+	 */
+	long getHitCount();
+
+	/**
+	 * <p><des> 缓存未命中次数 </des></p>
+	 * @since 0.3.0
+	 */
+	long getMissCount();
+
+	/**
+	 * <p><des> 由异常驱动的未命中次数(如沿父类查找字段时抛出的NoSuchFieldException) </des></p>
+	 * @since 0.3.0
+	 */
+	long getExceptionMissCount();
+
+	/**
+	 * <p><des> 查找耗费的总时间(毫秒) </des></p>
+	 * @since 0.3.0
+	 */
+	long getLookupTimeMillis();
+
+	/**
+	 * <p><des> 按类分组的统计信息, 按未命中次数降序排列, 每个类一行 </des></p>
+	 * @since 0.3.0
+	 */
+	String[] getClassMetrics();
+
+	/**
+	 * <p><des> 清空统计信息 </des></p>
+	 * @since 0.3.0
+	 */
+	void reset();
+
+}
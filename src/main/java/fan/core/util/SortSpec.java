@@ -0,0 +1,253 @@
+package fan.core.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import fan.core.exception.ExecutetimeException;
+import fan.core.util.code.SortCode;
+/**
+ * <p> <b> @描述：</b> 排序规格。由一个或多个 "字段 [ASC|DESC] [NULLS FIRST|NULLS LAST]" 组成, 前一个字段相同时按后一个字段排序。
+ * 规格编译一次后不可变, 可在多次调用及多个线程间共享, 字段按类解析并缓存。
+ * 未指定 NULLS 时, 值为null的字段视为最小, 即升序时在前, 降序时在后
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-24
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class SortSpec implements Comparator<Object> {
+
+	// null ordering policies
+	private static final int NULLS_DEFAULT = 0, NULLS_FIRST = 1, NULLS_LAST = 2;
+
+	private final SortKey[] keys;
+	// collation of string keys
+	private final Collation collation;
+
+	private SortSpec(SortKey[] keys, Collation collation){
+		this.keys = keys;
+		this.collation = collation;
+	}
+
+	/**
+	 * <p><des> 编译排序规格, 多个字段以逗号分隔, 排序方向及 NULLS 不区分大小写, 未指定排序方向时为升序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * SortSpec spec = SortSpec.compile("dept ASC, salary DESC NULLS LAST, name");
+	 * CollectionUtil.sort(employees, spec);
+	 * <notes>// also a Comparator</notes>
+	 * Collections.sort(employees, spec);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static SortSpec compile(String spec){
+		if(spec == null || spec.trim().length() == 0){
+			throw new ExecutetimeException("sort specification must not be blank");
+		}
+		List<SortKey> keys = new ArrayList<SortKey>();
+		for(String part : spec.split(",")){
+			String[] words = part.trim().split("\\s+");
+			if(words.length == 0 || words[0].length() == 0 || words.length > 4){
+				throw new ExecutetimeException("invalid sort specification: " + spec);
+			}
+			int next = 1;
+			SortCode sortCode = SortCode.ASC;
+			if(next < words.length && (words[next].equalsIgnoreCase("ASC") || words[next].equalsIgnoreCase("DESC"))){
+				sortCode = words[next++].equalsIgnoreCase("ASC") ? SortCode.ASC : SortCode.DESC;
+			}
+			int nulls = NULLS_DEFAULT;
+			if(next + 1 < words.length && words[next].equalsIgnoreCase("NULLS")){
+				if(words[next + 1].equalsIgnoreCase("FIRST")){
+					nulls = NULLS_FIRST;
+				}else if(words[next + 1].equalsIgnoreCase("LAST")){
+					nulls = NULLS_LAST;
+				}else{
+					throw new ExecutetimeException("invalid sort specification: " + spec);
+				}
+				next += 2;
+			}
+			if(next != words.length){
+				throw new ExecutetimeException("invalid sort specification: " + spec);
+			}
+			keys.add(new SortKey(words[0], sortCode, nulls));
+		}
+		return new SortSpec(keys.toArray(new SortKey[keys.size()]), Collation.GBK);
+	}
+
+	/**
+	 * <p><des> 以单个字段创建排序规格 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * SortSpec spec = SortSpec.by("dept", SortCode.ASC).then("salary", SortCode.DESC).nullsLast();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static SortSpec by(String key, SortCode sortCode){
+		return new SortSpec(new SortKey[]{ new SortKey(key, sortCode, NULLS_DEFAULT) }, Collation.GBK);
+	}
+
+	/**
+	 * <p><des> 返还追加了一个字段的新排序规格, 原规格不变 </des></p>
+	 * @since 0.3.0
+	 */
+	public SortSpec then(String key, SortCode sortCode){
+		SortKey[] appended = new SortKey[keys.length + 1];
+		System.arraycopy(keys, 0, appended, 0, keys.length);
+		appended[keys.length] = new SortKey(key, sortCode, NULLS_DEFAULT);
+		return new SortSpec(appended, collation);
+	}
+
+	/**
+	 * <p><des> 返还最后一个字段的null值排在最前的新排序规格, 原规格不变 </des></p>
+	 * @since 0.3.0
+	 */
+	public SortSpec nullsFirst(){
+		return withNulls(NULLS_FIRST);
+	}
+
+	/**
+	 * <p><des> 返还最后一个字段的null值排在最后的新排序规格, 原规格不变 </des></p>
+	 * @since 0.3.0
+	 */
+	public SortSpec nullsLast(){
+		return withNulls(NULLS_LAST);
+	}
+
+	/**
+	 * <p><des> 返还字符串字段按参数排序规则比较的新排序规格, 原规格不变, 默认为 GBK 编码顺序 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * SortSpec spec = SortSpec.compile("city, name").collation(Collation.of(Locale.CHINA));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public SortSpec collation(Collation collation){
+		if(collation == null){
+			throw new NullPointerException("collation");
+		}
+		return new SortSpec(keys, collation);
+	}
+
+	/**
+	 * <p><des> 按排序规格比较两个对象, 每次比较都读取字段值; 对集合排序时应使用 CollectionUtil.sort, 每个元素的字段只读取一次 </des></p>
+	 * @since 0.3.0
+	 * @see fan.core.util.CollectionUtil#sort(java.util.Collection, SortSpec)
+	 */
+	@Override
+	public int compare(Object o1, Object o2) {
+		for(SortKey key : keys){
+			int result = key.compare(CollectionUtil.collationKey(key.value(o1), collation), CollectionUtil.collationKey(key.value(o2), collation));
+			if(result != 0){
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for(SortKey key : keys){
+			if(builder.length() > 0){
+				builder.append(", ");
+			}
+			builder.append(key.name).append(key.isAsc ? " ASC" : " DESC");
+			if(key.nulls != NULLS_DEFAULT){
+				builder.append(key.nulls == NULLS_FIRST ? " NULLS FIRST" : " NULLS LAST");
+			}
+		}
+		return builder.toString();
+	}
+
+	/** <p><des> 创建一次排序使用的关键字提取器 </des></p> */
+	CollectionUtil.KeySorter sorter(int size){
+		return new SpecSorter(keys, collation, size);
+	}
+
+	/** <p><des> 修改最后一个字段的null值排序策略 </des></p> */
+	private SortSpec withNulls(int nulls){
+		SortKey[] changed = keys.clone();
+		SortKey last = keys[keys.length - 1];
+		changed[keys.length - 1] = new SortKey(last.name, last.isAsc ? SortCode.ASC : SortCode.DESC, nulls);
+		return new SortSpec(changed, collation);
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 排序字段
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-24
+	 */
+	private static class SortKey {
+
+		final String name;
+		final boolean isAsc;
+		// null ordering, NULLS_DEFAULT is resolved by sort direction
+		final int nulls;
+		private final KeyAccessor accessor;
+
+		SortKey(String name, SortCode sortCode, int nulls){
+			this.name = name;
+			this.isAsc = SortCode.equalsCode(sortCode, SortCode.ASC);
+			this.nulls = nulls;
+			this.accessor = new KeyAccessor(name);
+		}
+
+		Object value(Object element){
+			return accessor.get(element);
+		}
+
+		int compare(Object v1, Object v2){
+			if(v1 == null || v2 == null){
+				if(v1 == v2){
+					return 0;
+				}
+				boolean first = nulls == NULLS_DEFAULT ? isAsc : nulls == NULLS_FIRST;
+				return (v1 == null) == first ? -1 : 1;
+			}
+			int result = CollectionUtil.compareValue(v1, v2);
+			return isAsc ? result : -result;
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一次排序的关键字提取器, 按字段分别保存提取的关键字
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-07-24
+	 */
+	private static class SpecSorter extends CollectionUtil.KeySorter {
+
+		private final SortKey[] keys;
+		private final Collation collation;
+		private final Object[][] values;
+
+		SpecSorter(SortKey[] keys, Collation collation, int size){
+			this.keys = keys;
+			this.collation = collation;
+			this.values = new Object[keys.length][size];
+		}
+
+		@Override
+		void extract(Object[] elements, int from, int to) {
+			for(int k = 0; k < keys.length; k++){
+				SortKey key = keys[k];
+				Object[] column = values[k];
+				for(int i = from; i < to; i++){
+					column[i] = CollectionUtil.collationKey(key.value(elements[i]), collation);
+				}
+			}
+		}
+
+		@Override
+		int compare(int i, int j) {
+			for(int k = 0; k < keys.length; k++){
+				int result = keys[k].compare(values[k][i], values[k][j]);
+				if(result != 0){
+					return result;
+				}
+			}
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+package fan.core.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 双向映射的公共实现。正向与反向两个散列表互为对方的反向视图, 修改时先写反向表再写正向表
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-04
+ * <p> <b> @since 0.3.0 </b>
+ */
+abstract class AbstractBiMap<K, V> extends AbstractMap<K, V> implements BiMap<K, V> {
+
+	final Map<K, V> forward;
+	final Map<V, K> backward;
+	// created on first use, links back to this map
+	private AbstractBiMap<V, K> inverse;
+	private transient Set<Map.Entry<K, V>> entrySet;
+
+	AbstractBiMap(Map<K, V> forward, Map<V, K> backward){
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	/** <p><des> 反向视图的构造, 交换两个散列表 </des></p> */
+	AbstractBiMap(AbstractBiMap<V, K> inverse){
+		this.forward = inverse.backward;
+		this.backward = inverse.forward;
+		this.inverse = inverse;
+	}
+
+	/** <p><des> 创建共享数据的反向视图 </des></p> */
+	abstract AbstractBiMap<V, K> createInverse();
+
+	@Override
+	public V get(Object key) {
+		return forward.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return forward.containsKey(key);
+	}
+
+	/** <p><des> 查找反向表, 不再遍历全部值 </des></p> */
+	@Override
+	public boolean containsValue(Object value) {
+		return backward.containsKey(value);
+	}
+
+	@Override
+	public K getKey(Object value) {
+		return backward.get(value);
+	}
+
+	@Override
+	public int size() {
+		return forward.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return forward.isEmpty();
+	}
+
+	@Override
+	public V put(K key, V value) {
+		return put(key, value, false);
+	}
+
+	@Override
+	public V forcePut(K key, V value) {
+		return put(key, value, true);
+	}
+
+	@Override
+	public V remove(Object key) {
+		if(!forward.containsKey(key)){
+			return null;
+		}
+		V value = forward.remove(key);
+		backward.remove(value);
+		return value;
+	}
+
+	@Override
+	public void clear() {
+		backward.clear();
+		forward.clear();
+	}
+
+	@Override
+	public BiMap<V, K> inverse() {
+		AbstractBiMap<V, K> view = inverse;
+		if(view == null){
+			inverse = view = createInverse();
+		}
+		return view;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> entries = entrySet;
+		if(entries == null){
+			entrySet = entries = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator(forward.entrySet().iterator());
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					return forward.entrySet().contains(o);
+				}
+
+				@Override
+				public int size() {
+					return forward.size();
+				}
+
+				@Override
+				public void clear() {
+					AbstractBiMap.this.clear();
+				}
+			};
+		}
+		return entries;
+	}
+
+	/** <p><des> 放入键值对, 参数3为true时移除已使用该值的其他键, 否则抛出异常 </des></p> */
+	V put(K key, V value, boolean force){
+		boolean containedKey = forward.containsKey(key);
+		V previous = forward.get(key);
+		if(containedKey && equal(previous, value)){
+			return value;
+		}
+		if(backward.containsKey(value)){
+			if(!force){
+				throw new ExecutetimeException("value already bound to another key, the value must be unique: " + value);
+			}
+			forward.remove(backward.remove(value));
+		}
+		if(containedKey){
+			backward.remove(previous);
+		}
+		backward.put(value, key);
+		forward.put(key, value);
+		return previous;
+	}
+
+	/** <p><des> 通过迭代器移除当前键值对, 同时移除反向表中的值 </des></p> */
+	void remove(Iterator<Map.Entry<K, V>> iterator, K key){
+		// a concurrent writer may have removed the key already
+		boolean contained = forward.containsKey(key);
+		V value = forward.get(key);
+		iterator.remove();
+		if(contained){
+			backward.remove(value);
+		}
+	}
+
+	/** <p><des> null安全的相等比较 </des></p> */
+	private static boolean equal(Object v1, Object v2){
+		return v1 == null ? v2 == null : v1.equals(v2);
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 遍历正向表, 移除与修改值时同步反向表
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-04
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private final Iterator<Map.Entry<K, V>> iterator;
+		private Map.Entry<K, V> current;
+
+		EntryIterator(Iterator<Map.Entry<K, V>> iterator){
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Map.Entry<K, V> next() {
+			Map.Entry<K, V> entry = iterator.next();
+			current = entry;
+			return new AbstractMap.SimpleEntry<K, V>(entry) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public V setValue(V value) {
+					V previous = put(getKey(), value);
+					super.setValue(value);
+					return previous;
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if(current == null){
+				throw new IllegalStateException();
+			}
+			AbstractBiMap.this.remove(iterator, current.getKey());
+			current = null;
+		}
+	}
+
+}
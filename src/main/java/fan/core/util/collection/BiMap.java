@@ -0,0 +1,39 @@
+package fan.core.util.collection;
+
+import java.util.Map;
+/**
+ * <p> <b> @描述：</b> 双向映射, 值也是唯一的。同时维护键到值与值到键两个散列表, 由值查找键与由键查找值一样只需一次散列查找,
+ * 放入已被其他键使用的值时抛出异常。由 MapUtil.newBiMap, newConcurrentBiMap 创建
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-04
+ * <p> <b> @since 0.3.0 </b>
+ */
+public interface BiMap<K, V> extends Map<K, V> {
+
+	/**
+	 * <p><des> 放入键值对, 值已对应其他键时抛出 ExecutetimeException, 不修改映射 </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	V put(K key, V value);
+
+	/**
+	 * <p><des> 放入键值对, 值已对应其他键时先移除该键 </des></p>
+	 * @since 0.3.0
+	 */
+	V forcePut(K key, V value);
+
+	/**
+	 * <p><des> 返还值对应的键, 值不存在时返还null </des></p>
+	 * @since 0.3.0
+	 */
+	K getKey(Object value);
+
+	/**
+	 * <p><des> 返还值到键的反向视图, 与本映射共享数据, 双方的修改相互可见 </des></p>
+	 * @since 0.3.0
+	 */
+	BiMap<V, K> inverse();
+
+}
@@ -0,0 +1,113 @@
+package fan.core.util.collection;
+
+import java.util.Arrays;
+
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> 紧凑散列表的槽位布局, 只在创建表时使用。以大于键个数的最小的 2 的幂为表长, 尝试多个散列种子,
+ * 寻找没有冲突的完美散列, 找到时每次查找只需访问一个槽位; 找不到时退回开放定址的线性探测, 表长至少为键个数的 2 倍
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-03
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class CompactLayout {
+
+	// larger key sets almost never hash without a collision, they go straight to linear probing
+	private static final int PERFECT_LIMIT = 32;
+	// seeds tried at the smallest table length, a larger table would cost more than the probes it saves
+	private static final int SEEDS = 32;
+
+	// keys are placed at slot(hash) or after it
+	final int seed;
+	// table length is 1 << (32 - shift)
+	final int shift;
+	final int mask;
+	// slot of each key, in the order of the keys
+	final int[] slots;
+	// whether every key sits at its home slot
+	final boolean perfect;
+
+	private CompactLayout(int seed, int shift, int[] slots, boolean perfect){
+		this.seed = seed;
+		this.shift = shift;
+		this.mask = (1 << (32 - shift)) - 1;
+		this.slots = slots;
+		this.perfect = perfect;
+	}
+
+	/** <p><des> 槽位数 </des></p> */
+	int length(){
+		return mask + 1;
+	}
+
+	/** <p><des> 散列码对应的初始槽位, 使用乘积的高位; CompactSet, CompactMap 的查找内联了同一公式 </des></p> */
+	int slot(int hash){
+		return ((hash ^ seed) * 0x9E3779B9) >>> shift;
+	}
+
+	/** <p><des> 为互不相等的非null键计算布局, 相等的键抛出异常 </des></p> */
+	static CompactLayout of(Object[] keys){
+		int[] hashes = new int[keys.length];
+		for(int i = 0; i < keys.length; i++){
+			if(keys[i] == null){
+				throw new NullPointerException("compact tables do not accept null keys");
+			}
+			hashes[i] = keys[i].hashCode();
+		}
+		// at least one free slot so that a probe for a missing key always ends
+		int bits = 1;
+		while((1 << bits) <= keys.length){
+			bits++;
+		}
+		int[] slots = new int[keys.length];
+		// equal keys always collide, so a perfect layout also proves the keys distinct
+		if(keys.length <= PERFECT_LIMIT){
+			boolean[] used = new boolean[1 << bits];
+			for(int seed = 0; seed < SEEDS; seed++){
+				int scrambled = seed * 0x61C88647;
+				if(place(hashes, scrambled, 32 - bits, used, slots)){
+					return new CompactLayout(scrambled, 32 - bits, slots, true);
+				}
+				Arrays.fill(used, false);
+			}
+		}
+		// linear probing at a load factor of at most 1/2
+		while((1L << bits) < keys.length * 2L){
+			bits++;
+		}
+		int shift = 32 - Math.min(30, bits);
+		CompactLayout layout = new CompactLayout(0, shift, slots, false);
+		Object[] table = new Object[layout.length()];
+		for(int i = 0; i < keys.length; i++){
+			int slot = layout.slot(hashes[i]);
+			for(Object current; (current = table[slot]) != null; slot = (slot + 1) & layout.mask){
+				if(current.equals(keys[i])){
+					throw duplicate(keys[i]);
+				}
+			}
+			table[slot] = keys[i];
+			slots[i] = slot;
+		}
+		return layout;
+	}
+
+	/** <p><des> 以参数种子放置全部键, 有冲突时返还false </des></p> */
+	private static boolean place(int[] hashes, int seed, int shift, boolean[] used, int[] slots){
+		for(int i = 0; i < hashes.length; i++){
+			int slot = ((hashes[i] ^ seed) * 0x9E3779B9) >>> shift;
+			if(used[slot]){
+				return false;
+			}
+			used[slot] = true;
+			slots[i] = slot;
+		}
+		return true;
+	}
+
+	/** <p><des> 键重复的异常 </des></p> */
+	static ExecutetimeException duplicate(Object key){
+		return new ExecutetimeException("duplicate key in compact table: " + key);
+	}
+
+}
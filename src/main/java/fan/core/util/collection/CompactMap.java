@@ -0,0 +1,210 @@
+package fan.core.util.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+/**
+ * <p> <b> @描述：</b> 不可修改的紧凑散列表, 适合键固定, 创建后只读的小型映射表, 如类型, 编码等常量表。
+ * 键值交替保存在一个 Object[] 中, 值紧跟在键之后, 没有 Entry 节点; 创建时寻找无冲突的完美散列,
+ * 找到时 get 只比较一个槽位, 找不到时退回线性探测。遍历顺序与参数 Map 的遍历顺序相同,
+ * 不接受null键, 值可以为null, 可安全地被多个线程共享。由 MapUtil.compactMap 创建
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-03
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class CompactMap<K, V> extends AbstractMap<K, V> {
+
+	// copied from the layout, which is not kept
+	private final int seed, shift, mask;
+	private final boolean perfect;
+	// key of slot i at 2 * i, its value at 2 * i + 1, a null key marks an empty slot
+	private final Object[] table;
+	// slots in creation order, for iteration
+	private final int[] order;
+	private transient Set<Map.Entry<K, V>> entrySet;
+
+	private CompactMap(Object[] keys, Object[] values){
+		CompactLayout layout = CompactLayout.of(keys);
+		this.seed = layout.seed;
+		this.shift = layout.shift;
+		this.mask = layout.mask;
+		this.perfect = layout.perfect;
+		this.table = new Object[layout.length() << 1];
+		this.order = layout.slots;
+		for(int i = 0; i < keys.length; i++){
+			table[order[i] << 1] = keys[i];
+			table[(order[i] << 1) + 1] = values[i];
+		}
+	}
+
+	/**
+	 * <p><des> 复制参数 Map 的键值对 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;String, Integer&gt; levels = new LinkedHashMap&lt;String, Integer&gt;();
+	 * levels.put("debug", 1);
+	 * levels.put("info", 2);
+	 * Map&lt;String, Integer&gt; compact = CompactMap.copyOf(levels);
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(compact.get("info"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> CompactMap<K, V> copyOf(Map<? extends K, ? extends V> map){
+		if(map instanceof CompactMap){
+			return (CompactMap<K, V>) map;
+		}
+		Object[] keys = new Object[map.size()];
+		Object[] values = new Object[keys.length];
+		int i = 0;
+		for(Map.Entry<? extends K, ? extends V> entry : map.entrySet()){
+			keys[i] = entry.getKey();
+			values[i++] = entry.getValue();
+		}
+		return new CompactMap<K, V>(keys, values);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : (V) table[index + 1];
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		for(int slot : order){
+			Object current = table[(slot << 1) + 1];
+			if(value == null ? current == null : value.equals(current)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return order.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return order.length == 0;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		Set<Map.Entry<K, V>> entries = entrySet;
+		if(entries == null){
+			entrySet = entries = new AbstractSet<Map.Entry<K, V>>() {
+				@Override
+				public Iterator<Map.Entry<K, V>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public boolean contains(Object o) {
+					if(!(o instanceof Map.Entry)){
+						return false;
+					}
+					Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+					int index = indexOf(entry.getKey());
+					return index >= 0 && (table[index + 1] == null ? entry.getValue() == null : table[index + 1].equals(entry.getValue()));
+				}
+
+				@Override
+				public int size() {
+					return order.length;
+				}
+			};
+		}
+		return entries;
+	}
+
+	/**
+	 * <p><des> 是否每个键都位于初始槽位, 即 get 对已有的键只比较一次 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isPerfect(){
+		return perfect;
+	}
+
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException("compact map is immutable");
+	}
+
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException("compact map is immutable");
+	}
+
+	@Override
+	public void putAll(Map<? extends K, ? extends V> m) {
+		throw new UnsupportedOperationException("compact map is immutable");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("compact map is immutable");
+	}
+
+	/** <p><des> 键在 table 中的下标, 不存在时返还-1 </des></p> */
+	private int indexOf(Object key){
+		if(key == null){
+			return -1;
+		}
+		int hash = key.hashCode();
+		for(int slot = ((hash ^ seed) * 0x9E3779B9) >>> shift; ; slot = (slot + 1) & mask){
+			Object current = table[slot << 1];
+			if(current == null){
+				return -1;
+			}
+			if(current == key || current.equals(key)){
+				return slot << 1;
+			}
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 按创建顺序遍历键值对, 不支持 remove
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-03
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+		private int index;
+
+		@Override
+		public boolean hasNext() {
+			return index < order.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Map.Entry<K, V> next() {
+			if(index >= order.length){
+				throw new NoSuchElementException();
+			}
+			int position = order[index++] << 1;
+			return new AbstractMap.SimpleImmutableEntry<K, V>((K) table[position], (V) table[position + 1]);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("compact map is immutable");
+		}
+	}
+
+}
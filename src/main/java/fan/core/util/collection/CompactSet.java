@@ -0,0 +1,175 @@
+package fan.core.util.collection;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+/**
+ * <p> <b> @描述：</b> 不可修改的紧凑散列集合, 适合元素固定, 创建后只读的小型查找表。
+ * 元素直接保存在一个 Object[] 槽位表中, 没有链表节点; 创建时寻找无冲突的完美散列, 找到时 contains 只比较一个槽位,
+ * 找不到时退回线性探测。遍历顺序与创建时的元素顺序相同, 不接受null元素, 可安全地被多个线程共享。
+ * 由 CollectionUtil.compactSet 创建
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-03
+ * <p> <b> @since 0.3.0 </b>
+ */
+public final class CompactSet<E> extends AbstractSet<E> {
+
+	// copied from the layout, which is not kept
+	private final int seed, shift, mask;
+	private final boolean perfect;
+	// elements at their slots, null marks an empty slot
+	private final Object[] table;
+	// elements in creation order, for iteration
+	private final Object[] elements;
+	private final int hashCode;
+
+	private CompactSet(Object[] elements){
+		CompactLayout layout = CompactLayout.of(elements);
+		this.seed = layout.seed;
+		this.shift = layout.shift;
+		this.mask = layout.mask;
+		this.perfect = layout.perfect;
+		this.table = new Object[layout.length()];
+		this.elements = elements;
+		int hash = 0;
+		for(int i = 0; i < elements.length; i++){
+			table[layout.slots[i]] = elements[i];
+			hash += elements[i].hashCode();
+		}
+		this.hashCode = hash;
+	}
+
+	/**
+	 * <p><des> 以参数元素创建集合, 重复的元素只保留第一个 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Set&lt;String&gt; reserved = CompactSet.of("select", "from", "where");
+	 * <notes>// true</notes>
+	 * Testing.printlnObject(reserved.contains("from"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <E> CompactSet<E> of(E... elements){
+		return copyOf(Arrays.asList(elements));
+	}
+
+	/**
+	 * <p><des> 以集合的元素创建集合, 重复的元素只保留第一个 </des></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> CompactSet<E> copyOf(Collection<? extends E> elements){
+		if(elements instanceof CompactSet){
+			return (CompactSet<E>) elements;
+		}
+		Collection<? extends E> distinct = elements instanceof Set ? elements : new LinkedHashSet<E>(elements);
+		return new CompactSet<E>(distinct.toArray());
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if(o == null){
+			return false;
+		}
+		int hash = o.hashCode();
+		for(int slot = ((hash ^ seed) * 0x9E3779B9) >>> shift; ; slot = (slot + 1) & mask){
+			Object current = table[slot];
+			if(current == null){
+				return false;
+			}
+			if(current == o || current.equals(o)){
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return elements.length == 0;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < elements.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if(index >= elements.length){
+					throw new NoSuchElementException();
+				}
+				return (E) elements[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("compact set is immutable");
+			}
+		};
+	}
+
+	@Override
+	public Object[] toArray() {
+		return elements.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	/**
+	 * <p><des> 是否每个元素都位于初始槽位, 即 contains 对已有元素只比较一次 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isPerfect(){
+		return perfect;
+	}
+
+	@Override
+	public boolean add(E e) {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("compact set is immutable");
+	}
+
+}
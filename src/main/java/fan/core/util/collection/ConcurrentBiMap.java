@@ -0,0 +1,94 @@
+package fan.core.util.collection;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * <p> <b> @描述：</b> 线程安全的双向映射, 适合多个线程共享, 读多写少的字典表。以两个 ConcurrentHashMap 实现,
+ * 查找不加锁, 修改在同一把锁内依次更新两个散列表, 值唯一的检查与写入是原子的; 修改进行中并发的查找可能只看到其中一个表的结果。
+ * 不接受null键与null值, 遍历是弱一致的, 不抛出 ConcurrentModificationException
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-04
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class ConcurrentBiMap<K, V> extends AbstractBiMap<K, V> {
+
+	// shared with the inverse view
+	private final Object lock;
+
+	/**
+	 * <p><des> 创建空的双向映射 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * private static final BiMap&lt;String, String&gt; REGIONS = new ConcurrentBiMap&lt;String, String&gt;();
+	 * REGIONS.put("110000", "北京");
+	 * <notes>// 110000</notes>
+	 * Testing.printlnObject(REGIONS.getKey("北京"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public ConcurrentBiMap(){
+		this(16);
+	}
+
+	/**
+	 * <p><des> 创建可容纳指定键值对个数而不扩容的双向映射 </des></p>
+	 * @since 0.3.0
+	 */
+	public ConcurrentBiMap(int expectedSize){
+		super(new ConcurrentHashMap<K, V>(Hashing.mapCapacity(expectedSize)), new ConcurrentHashMap<V, K>(Hashing.mapCapacity(expectedSize)));
+		this.lock = new Object();
+	}
+
+	/**
+	 * <p><des> 复制参数 Map 的键值对, 值重复时抛出 ExecutetimeException </des></p>
+	 * @since 0.3.0
+	 */
+	public ConcurrentBiMap(Map<? extends K, ? extends V> map){
+		this(map.size());
+		putAll(map);
+	}
+
+	private ConcurrentBiMap(ConcurrentBiMap<V, K> inverse){
+		super(inverse);
+		this.lock = inverse.lock;
+	}
+
+	@Override
+	AbstractBiMap<V, K> createInverse() {
+		return new ConcurrentBiMap<V, K>(this);
+	}
+
+	@Override
+	V put(K key, V value, boolean force) {
+		if(key == null || value == null){
+			throw new NullPointerException();
+		}
+		synchronized (lock) {
+			return super.put(key, value, force);
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		synchronized (lock) {
+			return super.remove(key);
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (lock) {
+			super.clear();
+		}
+	}
+
+	@Override
+	void remove(Iterator<Map.Entry<K, V>> iterator, K key) {
+		synchronized (lock) {
+			super.remove(iterator, key);
+		}
+	}
+
+}
@@ -0,0 +1,340 @@
+package fan.core.util.collection;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import fan.core.util.MapUtil;
+/**
+ * <p> <b> @描述：</b> 线程安全的计数表, 适合多个请求线程统计错误码, 用户, 路径等的出现次数。
+ * 每个键的计数器先以 CAS 累加一个基础值, 发生竞争后按线程分散到多个独立缓存行的计数单元, 累加不加锁,
+ * 不同线程对同一个键计数也不在一个变量上排队; 读取时汇总全部单元。
+ * 可定期调用 drain 取出并清零一个时间窗口的计数, 或调用 decay 按比例衰减, 调度由调用方负责。
+ * 读取与快照是弱一致的, 与并发的累加同时进行时不包含尚未完成的累加, 但不会丢失任何累加
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-05
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class ConcurrentCounterMap<K> {
+
+	// stripes per contended counter, a power of two not below the processor count
+	private static final int STRIPES;
+	// longs between two stripes, keeps each stripe on its own cache line
+	private static final int PADDING = 8;
+	// orders entries by count, ascending
+	private static final Comparator<Map.Entry<?, Long>> BY_COUNT = new Comparator<Map.Entry<?, Long>>() {
+		@Override
+		public int compare(Map.Entry<?, Long> o1, Map.Entry<?, Long> o2) {
+			long c1 = o1.getValue(), c2 = o2.getValue();
+			return c1 < c2 ? -1 : (c1 == c2 ? 0 : 1);
+		}
+	};
+
+	private final ConcurrentMap<K, Counter> counters;
+
+	/**
+	 * <p><des> 创建空的计数表 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * private static final ConcurrentCounterMap&lt;String&gt; ERRORS = new ConcurrentCounterMap&lt;String&gt;();
+	 * <notes>// in any request thread</notes>
+	 * ERRORS.increment("E1001");
+	 * <notes>// the ten most frequent codes</notes>
+	 * Testing.printlnObject(ERRORS.top(10));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public ConcurrentCounterMap(){
+		this(16);
+	}
+
+	/**
+	 * <p><des> 创建可容纳指定键个数而不扩容的计数表 </des></p>
+	 * @since 0.3.0
+	 */
+	public ConcurrentCounterMap(int expectedSize){
+		this.counters = new ConcurrentHashMap<K, Counter>(Hashing.mapCapacity(expectedSize), .75f, STRIPES);
+	}
+
+	/**
+	 * <p><des> 键的计数加1, 键不存在时从0开始 </des></p>
+	 * @since 0.3.0
+	 */
+	public void increment(K key){
+		add(key, 1);
+	}
+
+	/**
+	 * <p><des> 键的计数加参数2, 可以为负数 </des></p>
+	 * @since 0.3.0
+	 */
+	public void add(K key, long delta){
+		Counter counter = counters.get(key);
+		if(counter == null){
+			counter = new Counter();
+			Counter existing = counters.putIfAbsent(key, counter);
+			if(existing != null){
+				counter = existing;
+			}
+		}
+		add(key, counter, delta);
+	}
+
+	/**
+	 * <p><des> 返还键的计数, 键不存在时返还0 </des></p>
+	 * @since 0.3.0
+	 */
+	public long get(Object key){
+		Counter counter = counters.get(key);
+		return counter == null ? 0 : counter.sum();
+	}
+
+	/**
+	 * <p><des> 全部键的计数之和 </des></p>
+	 * @since 0.3.0
+	 */
+	public long total(){
+		long total = 0;
+		for(Counter counter : counters.values()){
+			total += counter.sum();
+		}
+		return total;
+	}
+
+	/**
+	 * <p><des> 键的个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int size(){
+		return counters.size();
+	}
+
+	/**
+	 * <p><des> 是否没有键 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isEmpty(){
+		return counters.isEmpty();
+	}
+
+	/**
+	 * <p><des> 全部键的视图, 不支持修改 </des></p>
+	 * @since 0.3.0
+	 */
+	public Set<K> keySet(){
+		return Collections.unmodifiableSet(counters.keySet());
+	}
+
+	/**
+	 * <p><des> 返还当前计数的快照, 之后的累加不影响快照 </des></p>
+	 * @since 0.3.0
+	 */
+	public Map<K, Long> snapshot(){
+		Map<K, Long> snapshot = MapUtil.newMap(Hashing.mapCapacity(counters.size()), .75);
+		for(Map.Entry<K, Counter> entry : counters.entrySet()){
+			snapshot.put(entry.getKey(), entry.getValue().sum());
+		}
+		return snapshot;
+	}
+
+	/**
+	 * <p><des> 返还计数最大的参数个键及其计数, 按计数从大到小排列, 计数相同时顺序不确定 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * for(Map.Entry&lt;String, Long&gt; entry : PATHS.top(3)){
+	 *     Testing.printlnObject(entry.getKey() + " " + entry.getValue());
+	 * }
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public List<Map.Entry<K, Long>> top(int count){
+		if(count < 0){
+			throw new IllegalArgumentException("count: " + count);
+		}
+		List<Map.Entry<K, Long>> top = new ArrayList<Map.Entry<K, Long>>(Math.min(count, counters.size()));
+		if(count == 0){
+			return top;
+		}
+		// the smallest of the current top entries sits at the head
+		PriorityQueue<Map.Entry<K, Long>> heap = new PriorityQueue<Map.Entry<K, Long>>(count, BY_COUNT);
+		for(Map.Entry<K, Counter> entry : counters.entrySet()){
+			long sum = entry.getValue().sum();
+			if(heap.size() < count){
+				heap.add(new AbstractMap.SimpleImmutableEntry<K, Long>(entry.getKey(), sum));
+			}else if(sum > heap.peek().getValue()){
+				heap.poll();
+				heap.add(new AbstractMap.SimpleImmutableEntry<K, Long>(entry.getKey(), sum));
+			}
+		}
+		top.addAll(heap);
+		Collections.sort(top, Collections.reverseOrder(BY_COUNT));
+		return top;
+	}
+
+	/**
+	 * <p><des> 取出全部计数并移除全部键, 用于按时间窗口统计; 取出过程中并发的累加计入下一个窗口, 不会丢失 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// every minute</notes>
+	 * Map&lt;String, Long&gt; lastMinute = ERRORS.drain();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public Map<K, Long> drain(){
+		Map<K, Long> drained = MapUtil.newMap(Hashing.mapCapacity(counters.size()), .75);
+		for(Map.Entry<K, Counter> entry : counters.entrySet()){
+			long sum = retire(entry.getKey(), entry.getValue());
+			if(sum != 0){
+				drained.put(entry.getKey(), sum);
+			}
+		}
+		return drained;
+	}
+
+	/**
+	 * <p><des> 清零并移除全部键 </des></p>
+	 * @since 0.3.0
+	 */
+	public void reset(){
+		for(Map.Entry<K, Counter> entry : counters.entrySet()){
+			retire(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * <p><des> 将每个键的计数乘以参数因子并向零取整, 因子在 [0, 1] 之间, 衰减为0的键被移除;
+	 * 定期调用可使旧的计数逐渐失去权重, 衰减过程中并发的累加不受影响 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// every minute, halves the weight of older counts</notes>
+	 * USERS.decay(0.5);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public void decay(double factor){
+		if(!(factor >= 0 && factor <= 1)){
+			throw new IllegalArgumentException("factor: " + factor);
+		}
+		for(Map.Entry<K, Counter> entry : counters.entrySet()){
+			Counter counter = entry.getValue();
+			long sum = counter.sum();
+			long decayed = (long) (sum * factor);
+			if(decayed != sum){
+				add(entry.getKey(), counter, decayed - sum);
+			}
+			if(decayed == 0){
+				long leftover = retire(entry.getKey(), counter);
+				if(leftover != 0){
+					add(entry.getKey(), leftover);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return snapshot().toString();
+	}
+
+	/** <p><des> 累加到计数器, 计数器已被移除时将其剩余的计数转移到新的计数器 </des></p> */
+	private void add(K key, Counter counter, long delta){
+		counter.add(delta);
+		// checked after adding: a retire that missed this delta has already set the flag
+		if(counter.retired){
+			long leftover = counter.sumThenReset();
+			if(leftover != 0){
+				add(key, leftover);
+			}
+		}
+	}
+
+	/**
+	 * <p><des> 移除计数器并取出其计数。先标记再移除, 标记之后完成的累加由累加线程自己转移到新的计数器 </des></p>
+	 */
+	private long retire(K key, Counter counter){
+		counter.retired = true;
+		counters.remove(key, counter);
+		return counter.sumThenReset();
+	}
+
+	static {
+		int stripes = 1;
+		while(stripes < Runtime.getRuntime().availableProcessors() && stripes < 64){
+			stripes <<= 1;
+		}
+		STRIPES = stripes;
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 一个键的计数器, 没有竞争时只累加 base, 竞争后按线程累加到 cells 的不同单元
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-05
+	 */
+	private static final class Counter {
+
+		private static final AtomicLongFieldUpdater<Counter> BASE = AtomicLongFieldUpdater.newUpdater(Counter.class, "base");
+		private static final AtomicReferenceFieldUpdater<Counter, AtomicLongArray> CELLS
+			= AtomicReferenceFieldUpdater.newUpdater(Counter.class, AtomicLongArray.class, "cells");
+
+		volatile long base;
+		// created on the first failed CAS of base
+		volatile AtomicLongArray cells;
+		// removed from the map, adders move their increments to the live counter
+		volatile boolean retired;
+
+		/** <p><des> 累加 </des></p> */
+		void add(long delta){
+			AtomicLongArray striped = cells;
+			if(striped == null){
+				long current = base;
+				if(BASE.compareAndSet(this, current, current + delta)){
+					return;
+				}
+				CELLS.compareAndSet(this, null, new AtomicLongArray(STRIPES * PADDING));
+				striped = cells;
+			}
+			striped.getAndAdd(stripe() * PADDING, delta);
+		}
+
+		/** <p><des> 汇总全部单元 </des></p> */
+		long sum(){
+			long sum = base;
+			AtomicLongArray striped = cells;
+			if(striped != null){
+				for(int i = 0; i < STRIPES; i++){
+					sum += striped.get(i * PADDING);
+				}
+			}
+			return sum;
+		}
+
+		/** <p><des> 逐个单元取出并清零, 每次累加只被取出一次 </des></p> */
+		long sumThenReset(){
+			long sum = BASE.getAndSet(this, 0);
+			AtomicLongArray striped = cells;
+			if(striped != null){
+				for(int i = 0; i < STRIPES; i++){
+					sum += striped.getAndSet(i * PADDING, 0);
+				}
+			}
+			return sum;
+		}
+
+		/** <p><des> 当前线程的单元, 同一线程总是使用同一单元 </des></p> */
+		private static int stripe(){
+			return Hashing.mix((int) Thread.currentThread().getId()) & (STRIPES - 1);
+		}
+	}
+
+}
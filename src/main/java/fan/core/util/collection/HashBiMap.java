@@ -0,0 +1,57 @@
+package fan.core.util.collection;
+
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * <p> <b> @描述：</b> 以两个 HashMap 实现的双向映射, 键与值都可以为null, 遍历顺序不确定。不是线程安全的,
+ * 多个线程共享时使用 ConcurrentBiMap
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-04
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class HashBiMap<K, V> extends AbstractBiMap<K, V> {
+
+	/**
+	 * <p><des> 创建空的双向映射 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * BiMap&lt;String, String&gt; sexes = new HashBiMap&lt;String, String&gt;();
+	 * sexes.put("M", "男");
+	 * sexes.put("F", "女");
+	 * <notes>// F</notes>
+	 * Testing.printlnObject(sexes.getKey("女"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public HashBiMap(){
+		this(16);
+	}
+
+	/**
+	 * <p><des> 创建可容纳指定键值对个数而不扩容的双向映射 </des></p>
+	 * @since 0.3.0
+	 */
+	public HashBiMap(int expectedSize){
+		super(new HashMap<K, V>(Hashing.mapCapacity(expectedSize)), new HashMap<V, K>(Hashing.mapCapacity(expectedSize)));
+	}
+
+	/**
+	 * <p><des> 复制参数 Map 的键值对, 值重复时抛出 ExecutetimeException </des></p>
+	 * @since 0.3.0
+	 */
+	public HashBiMap(Map<? extends K, ? extends V> map){
+		this(map.size());
+		putAll(map);
+	}
+
+	private HashBiMap(HashBiMap<V, K> inverse){
+		super(inverse);
+	}
+
+	@Override
+	AbstractBiMap<V, K> createInverse() {
+		return new HashBiMap<V, K>(this);
+	}
+
+}
@@ -0,0 +1,72 @@
+package fan.core.util.collection;
+/**
+ * <p> <b> @描述：</b> 本包散列集合与散列表共用的散列函数及容量计算
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-30
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class Hashing {
+
+	// fraction of slots in use before the table doubles, linear probing degrades quickly above it
+	static final float LOAD_FACTOR = .7f;
+	private static final int MIN_CAPACITY = 4, MAX_CAPACITY = 1 << 30;
+
+	private Hashing(){}
+
+	/** <p><des> 打散键的各位, 使连续或步长规律的键均匀分布到槽位 </des></p> */
+	static int mix(int key){
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/** <p><des> 打散键的各位, 使连续或步长规律的键均匀分布到槽位 </des></p> */
+	static int mix(long key){
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/** <p><des> 打散键的各位, 返还 64 位的散列码, 用于槽位数可超过 2^31 的散列表 </des></p> */
+	static long mix64(long key){
+		long h = key * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+
+	/** <p><des> 容纳指定个数的元素而不扩容所需的槽位数, 为 2 的幂 </des></p> */
+	static int capacity(int expectedSize){
+		long required = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+		if(required > MAX_CAPACITY){
+			return MAX_CAPACITY;
+		}
+		int capacity = MIN_CAPACITY;
+		while(capacity < required){
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/** <p><des> java.util 的散列表在默认加载因子 0.75 下容纳指定个数而不扩容的初始容量 </des></p> */
+	static int mapCapacity(int expectedSize){
+		if(expectedSize < 0){
+			throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+		}
+		return Math.max(16, (int) Math.min(MAX_CAPACITY, (long) (expectedSize / .75f) + 1));
+	}
+
+	/** <p><des> 扩容后的槽位数, 已达最大容量时抛出异常 </des></p> */
+	static int grow(int capacity){
+		if(capacity >= MAX_CAPACITY){
+			throw new IllegalStateException("hash table is full: " + capacity + " slots");
+		}
+		return capacity << 1;
+	}
+
+	/** <p><des> 槽位数对应的扩容阈值, 至少保留一个空槽位以结束探测 </des></p> */
+	static int resizeAt(int capacity){
+		if(capacity == MAX_CAPACITY){
+			return capacity - 1;
+		}
+		return Math.min(capacity - 1, (int) Math.ceil(capacity * LOAD_FACTOR));
+	}
+
+}
@@ -0,0 +1,362 @@
+package fan.core.util.collection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import fan.core.util.CollectionUtil;
+import fan.core.util.MapUtil;
+/**
+ * <p> <b> @描述：</b> 键为基本类型 int 的散列表。开放定址, 线性探测, 键保存在 int[] 中, 不装箱,
+ * 省去了每个键的包装对象, 链表节点及其引用;
+ * 值可以为null, 删除时后移填补空位, 不留删除标记。可与 Map&lt;Integer, V&gt; 互相转换, 遍历顺序不确定。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-30
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class IntObjectMap<V> {
+
+	// marks an empty slot, the key 0 itself is tracked by hasZero
+	private static final int FREE = 0;
+
+	private int[] keys;
+	private Object[] values;
+	private boolean hasZero;
+	private Object zeroValue;
+	// number of entries, including the key 0
+	private int size;
+	// keys.length - 1, keys.length is a power of two
+	private int mask;
+	// grow when the slots in use reach this
+	private int resizeAt;
+
+	/**
+	 * <p><des> 创建空的散列表 </des></p>
+	 * @since 0.3.0
+	 */
+	public IntObjectMap(){
+		this(16);
+	}
+
+	/**
+	 * <p><des> 创建可容纳指定键值对个数而不扩容的散列表 </des></p>
+	 * @since 0.3.0
+	 */
+	public IntObjectMap(int expectedSize){
+		if(expectedSize < 0){
+			throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+		}
+		allocate(Hashing.capacity(expectedSize));
+	}
+
+	/**
+	 * <p><des> 以 Map 的键值对创建散列表, 键不能为null </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Map&lt;Integer, User&gt; users = MapUtil.newMap();
+	 * users.put(1001, user);
+	 * IntObjectMap&lt;User&gt; byId = IntObjectMap.from(users);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static <V> IntObjectMap<V> from(Map<? extends Number, ? extends V> map){
+		IntObjectMap<V> result = new IntObjectMap<V>(map.size());
+		result.putAll(map);
+		return result;
+	}
+
+	/**
+	 * <p><des> 放入键值对, 返还该键原有的值, 原来不存在时返还null </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * IntObjectMap&lt;String&gt; names = new IntObjectMap&lt;String&gt;();
+	 * names.put(1001, "fan");
+	 * <notes>// fan</notes>
+	 * Testing.printlnObject(names.get(1001));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value){
+		if(key == FREE){
+			V previous = (V) zeroValue;
+			zeroValue = value;
+			if(!hasZero){
+				hasZero = true;
+				size++;
+			}
+			return previous;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(int current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				V previous = (V) values[slot];
+				values[slot] = value;
+				return previous;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if(++size - (hasZero ? 1 : 0) >= resizeAt){
+			allocate(Hashing.grow(keys.length));
+		}
+		return null;
+	}
+
+	/**
+	 * <p><des> 放入 Map 的全部键值对, 键不能为null </des></p>
+	 * @since 0.3.0
+	 */
+	public void putAll(Map<? extends Number, ? extends V> map){
+		for(Map.Entry<? extends Number, ? extends V> entry : map.entrySet()){
+			put(entry.getKey().intValue(), entry.getValue());
+		}
+	}
+
+	/**
+	 * <p><des> 返还键对应的值, 键不存在时返还null </des></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key){
+		if(key == FREE){
+			return (V) zeroValue;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(int current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * <p><des> 是否包含键 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean containsKey(int key){
+		if(key == FREE){
+			return hasZero;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(int current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 移除键, 返还其原有的值, 键不存在时返还null </des></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key){
+		if(key == FREE){
+			V previous = (V) zeroValue;
+			if(hasZero){
+				hasZero = false;
+				zeroValue = null;
+				size--;
+			}
+			return previous;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(int current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				V previous = (V) values[slot];
+				shiftKeys(slot);
+				size--;
+				return previous;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * <p><des> 键值对个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * <p><des> 是否没有键值对 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * <p><des> 移除全部键值对, 保留已分配的容量 </des></p>
+	 * @since 0.3.0
+	 */
+	public void clear(){
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, null);
+		hasZero = false;
+		zeroValue = null;
+		size = 0;
+	}
+
+	/**
+	 * <p><des> 返还全部键的新数组, 顺序与 values 一致 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * int[] ids = byId.keys();
+	 * List&lt;User&gt; users = byId.values();
+	 * <notes>// users.get(i) is mapped from ids[i]</notes>
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public int[] keys(){
+		int[] result = new int[size];
+		int count = 0;
+		if(hasZero){
+			result[count++] = FREE;
+		}
+		for(int key : keys){
+			if(key != FREE){
+				result[count++] = key;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * <p><des> 返还全部值的新 List, 顺序与 keys 一致 </des></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public List<V> values(){
+		List<V> result = CollectionUtil.newList(size);
+		if(hasZero){
+			result.add((V) zeroValue);
+		}
+		for(int slot = 0; slot < keys.length; slot++){
+			if(keys[slot] != FREE){
+				result.add((V) values[slot]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * <p><des> 返还包含全部键值对的新 Map, 键装箱为 Integer </des></p>
+	 * @since 0.3.0
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<Integer, V> toMap(){
+		Map<Integer, V> map = MapUtil.newMap(Hashing.capacity(size), .75);
+		if(hasZero){
+			map.put(FREE, (V) zeroValue);
+		}
+		for(int slot = 0; slot < keys.length; slot++){
+			if(keys[slot] != FREE){
+				map.put(keys[slot], (V) values[slot]);
+			}
+		}
+		return map;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj){
+			return true;
+		}
+		if(!(obj instanceof IntObjectMap) || ((IntObjectMap<?>) obj).size != size){
+			return false;
+		}
+		IntObjectMap<?> other = (IntObjectMap<?>) obj;
+		if(hasZero && !(other.hasZero && equal(zeroValue, other.zeroValue))){
+			return false;
+		}
+		for(int slot = 0; slot < keys.length; slot++){
+			int key = keys[slot];
+			if(key != FREE && !(other.containsKey(key) && equal(values[slot], other.get(key)))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** <p><des> 与 Map&lt;Integer, V&gt; 的散列码一致 </des></p> */
+	@Override
+	public int hashCode() {
+		int hash = hasZero ? (zeroValue == null ? 0 : zeroValue.hashCode()) : 0;
+		for(int slot = 0; slot < keys.length; slot++){
+			int key = keys[slot];
+			if(key != FREE){
+				hash += key ^ (values[slot] == null ? 0 : values[slot].hashCode());
+			}
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder().append('{');
+		int[] keys = keys();
+		List<V> values = values();
+		for(int i = 0; i < keys.length; i++){
+			if(i > 0){
+				builder.append(", ");
+			}
+			builder.append(keys[i]).append('=').append(values.get(i));
+		}
+		return builder.append('}').toString();
+	}
+
+	/** <p><des> 以参数容量重新分配槽位, 并重新放入原有键值对 </des></p> */
+	private void allocate(int capacity){
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new int[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeAt = Hashing.resizeAt(capacity);
+		if(oldKeys != null){
+			for(int i = 0; i < oldKeys.length; i++){
+				int key = oldKeys[i];
+				if(key != FREE){
+					int slot = Hashing.mix(key) & mask;
+					while(keys[slot] != FREE){
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = key;
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+
+	/** <p><des> 清空槽位, 并将其后探测链上的键值对前移填补, 保证查找不因空位中断 </des></p> */
+	private void shiftKeys(int slot){
+		int last = slot;
+		for(slot = (last + 1) & mask; ; slot = (slot + 1) & mask){
+			int key = keys[slot];
+			if(key == FREE){
+				keys[last] = FREE;
+				values[last] = null;
+				return;
+			}
+			// the key may move to last only if last lies between its home slot and slot
+			int home = Hashing.mix(key) & mask;
+			if(((slot - home) & mask) >= ((slot - last) & mask)){
+				keys[last] = key;
+				values[last] = values[slot];
+				last = slot;
+			}
+		}
+	}
+
+	/** <p><des> 两个值是否相等, 可以为null </des></p> */
+	private static boolean equal(Object v1, Object v2){
+		return v1 == null ? v2 == null : v1.equals(v2);
+	}
+
+}
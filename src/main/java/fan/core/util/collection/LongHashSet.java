@@ -0,0 +1,343 @@
+package fan.core.util.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import fan.core.util.CollectionUtil;
+/**
+ * <p> <b> @描述：</b> 基本类型 long 的散列集合。开放定址, 线性探测, 元素直接保存在 long[] 中, 不装箱,
+ * 省去了每个元素的包装对象, 链表节点及其引用; 删除时后移填补空位, 不留删除标记。
+ * 可与 long[] 及 Set&lt;Long&gt; 互相转换, 遍历顺序不确定。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-30
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class LongHashSet {
+
+	// marks an empty slot, the element 0 itself is tracked by hasZero
+	private static final long FREE = 0;
+
+	private long[] keys;
+	private boolean hasZero;
+	// number of elements, including 0
+	private int size;
+	// keys.length - 1, keys.length is a power of two
+	private int mask;
+	// grow when the slots in use reach this
+	private int resizeAt;
+
+	/**
+	 * <p><des> 创建空的散列集合 </des></p>
+	 * @since 0.3.0
+	 */
+	public LongHashSet(){
+		this(16);
+	}
+
+	/**
+	 * <p><des> 创建可容纳指定元素个数而不扩容的散列集合 </des></p>
+	 * @since 0.3.0
+	 */
+	public LongHashSet(int expectedSize){
+		if(expectedSize < 0){
+			throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+		}
+		allocate(Hashing.capacity(expectedSize));
+	}
+
+	/**
+	 * <p><des> 以数组的元素创建散列集合, 重复的元素只保留一个 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * LongHashSet ids = LongHashSet.of(3, 1, 3);
+	 * <notes>// 2</notes>
+	 * Testing.printlnObject(ids.size());
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static LongHashSet of(long... values){
+		LongHashSet set = new LongHashSet(values.length);
+		set.addAll(values);
+		return set;
+	}
+
+	/**
+	 * <p><des> 以集合的元素创建散列集合, 元素不能为null </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * Set&lt;Long&gt; boxed = CollectionUtil.asSet(1001L, 1002L);
+	 * LongHashSet ids = LongHashSet.from(boxed);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static LongHashSet from(Collection<? extends Number> collection){
+		LongHashSet set = new LongHashSet(collection.size());
+		for(Number value : collection){
+			set.add(value.longValue());
+		}
+		return set;
+	}
+
+	/**
+	 * <p><des> 加入元素, 元素已存在时返还false </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean add(long key){
+		if(key == FREE){
+			if(hasZero){
+				return false;
+			}
+			hasZero = true;
+			size++;
+			return true;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(long current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return false;
+			}
+		}
+		keys[slot] = key;
+		if(++size - (hasZero ? 1 : 0) >= resizeAt){
+			allocate(Hashing.grow(keys.length));
+		}
+		return true;
+	}
+
+	/**
+	 * <p><des> 加入数组的全部元素, 集合改变时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean addAll(long[] values){
+		int before = size;
+		for(long value : values){
+			add(value);
+		}
+		return size != before;
+	}
+
+	/**
+	 * <p><des> 加入另一个散列集合的全部元素, 集合改变时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean addAll(LongHashSet other){
+		int before = size;
+		if(other.hasZero){
+			add(FREE);
+		}
+		for(long key : other.keys){
+			if(key != FREE){
+				add(key);
+			}
+		}
+		return size != before;
+	}
+
+	/**
+	 * <p><des> 是否包含元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean contains(long key){
+		if(key == FREE){
+			return hasZero;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(long current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 移除元素, 元素不存在时返还false </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean remove(long key){
+		if(key == FREE){
+			if(!hasZero){
+				return false;
+			}
+			hasZero = false;
+			size--;
+			return true;
+		}
+		int slot = Hashing.mix(key) & mask;
+		for(long current; (current = keys[slot]) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				shiftKeys(slot);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 移除数组中的全部元素, 集合改变时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean removeAll(long[] values){
+		int before = size;
+		for(long value : values){
+			remove(value);
+		}
+		return size != before;
+	}
+
+	/**
+	 * <p><des> 只保留同时在参数集合中的元素, 集合改变时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean retainAll(LongHashSet other){
+		int before = size;
+		if(hasZero && !other.hasZero){
+			remove(FREE);
+		}
+		for(int slot = 0; slot < keys.length; ){
+			long key = keys[slot];
+			if(key != FREE && !other.contains(key)){
+				// the slot is refilled by a later key, examine it again
+				shiftKeys(slot);
+				size--;
+			}else{
+				slot++;
+			}
+		}
+		return size != before;
+	}
+
+	/**
+	 * <p><des> 元素个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * <p><des> 是否没有元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * <p><des> 移除全部元素, 保留已分配的容量 </des></p>
+	 * @since 0.3.0
+	 */
+	public void clear(){
+		Arrays.fill(keys, FREE);
+		hasZero = false;
+		size = 0;
+	}
+
+	/**
+	 * <p><des> 返还包含全部元素的新数组, 顺序不确定 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] values = ids.toArray();
+	 * Arrays.sort(values);
+	 * Testing.printlnObject(ArrayUtil.toString(values));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public long[] toArray(){
+		long[] values = new long[size];
+		int count = 0;
+		if(hasZero){
+			values[count++] = FREE;
+		}
+		for(long key : keys){
+			if(key != FREE){
+				values[count++] = key;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * <p><des> 返还包含全部元素的新 Set, 元素装箱为 Long </des></p>
+	 * @since 0.3.0
+	 */
+	public Set<Long> toSet(){
+		Set<Long> set = CollectionUtil.newSet(Hashing.capacity(size), .75);
+		for(long value : toArray()){
+			set.add(value);
+		}
+		return set;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj){
+			return true;
+		}
+		if(!(obj instanceof LongHashSet) || ((LongHashSet) obj).size != size || ((LongHashSet) obj).hasZero != hasZero){
+			return false;
+		}
+		LongHashSet other = (LongHashSet) obj;
+		for(long key : keys){
+			if(key != FREE && !other.contains(key)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** <p><des> 与 Set&lt;Long&gt; 的散列码一致 </des></p> */
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for(long key : keys){
+			hash += (int) (key ^ (key >>> 32));
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/** <p><des> 以参数容量重新分配槽位, 并重新放入原有元素 </des></p> */
+	private void allocate(int capacity){
+		long[] old = keys;
+		keys = new long[capacity];
+		mask = capacity - 1;
+		resizeAt = Hashing.resizeAt(capacity);
+		if(old != null){
+			for(long key : old){
+				if(key != FREE){
+					int slot = Hashing.mix(key) & mask;
+					while(keys[slot] != FREE){
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = key;
+				}
+			}
+		}
+	}
+
+	/** <p><des> 清空槽位, 并将其后探测链上的元素前移填补, 保证查找不因空位中断 </des></p> */
+	private void shiftKeys(int slot){
+		int last = slot;
+		for(slot = (last + 1) & mask; ; slot = (slot + 1) & mask){
+			long key = keys[slot];
+			if(key == FREE){
+				keys[last] = FREE;
+				return;
+			}
+			// the key may move to last only if last lies between its home slot and slot
+			int home = Hashing.mix(key) & mask;
+			if(((slot - home) & mask) >= ((slot - last) & mask)){
+				keys[last] = key;
+				last = slot;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,341 @@
+package fan.core.util.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import fan.core.util.CollectionUtil;
+/**
+ * <p> <b> @描述：</b> 基本类型 long 的动态数组。元素直接保存在 long[] 中, 不装箱, 省去了每个元素的包装对象及其引用;
+ * 可与 long[] 及 List&lt;Long&gt; 互相转换。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-30
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class LongList {
+
+	// shared by empty lists until the first element is added
+	private static final long[] EMPTY = new long[0];
+
+	private long[] elements;
+	private int size;
+
+	/**
+	 * <p><des> 创建空的动态数组 </des></p>
+	 * @since 0.3.0
+	 */
+	public LongList(){
+		this.elements = EMPTY;
+	}
+
+	/**
+	 * <p><des> 创建指定初始容量的动态数组 </des></p>
+	 * @since 0.3.0
+	 */
+	public LongList(int initialCapacity){
+		if(initialCapacity < 0){
+			throw new IllegalArgumentException("Illegal Capacity: " + initialCapacity);
+		}
+		this.elements = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+	}
+
+	/**
+	 * <p><des> 以参数数组的副本创建动态数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * LongList ids = LongList.of(3, 1, 2);
+	 * <notes>// [3, 1, 2]</notes>
+	 * Testing.printlnObject(ids);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static LongList of(long... values){
+		LongList list = new LongList(values.length);
+		System.arraycopy(values, 0, list.elements, 0, values.length);
+		list.size = values.length;
+		return list;
+	}
+
+	/**
+	 * <p><des> 以集合的元素创建动态数组, 元素不能为null </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * List&lt;Long&gt; boxed = CollectionUtil.asList(1001L, 1002L);
+	 * LongList ids = LongList.from(boxed);
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static LongList from(Collection<? extends Number> collection){
+		LongList list = new LongList(collection.size());
+		for(Number value : collection){
+			list.elements[list.size++] = value.longValue();
+		}
+		return list;
+	}
+
+	/**
+	 * <p><des> 在末尾追加元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public void add(long value){
+		if(size == elements.length){
+			grow(size + 1);
+		}
+		elements[size++] = value;
+	}
+
+	/**
+	 * <p><des> 在指定位置插入元素, 其后的元素后移 </des></p>
+	 * @since 0.3.0
+	 */
+	public void add(int index, long value){
+		if(index < 0 || index > size){
+			throw outOfBounds(index);
+		}
+		if(size == elements.length){
+			grow(size + 1);
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+	}
+
+	/**
+	 * <p><des> 在末尾追加数组的全部元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public void addAll(long[] values){
+		addAll(values, 0, values.length);
+	}
+
+	/**
+	 * <p><des> 在末尾追加数组 [from, to) 范围内的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public void addAll(long[] values, int from, int to){
+		if(from < 0 || to > values.length || from > to){
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + values.length);
+		}
+		ensureCapacity(size + to - from);
+		System.arraycopy(values, from, elements, size, to - from);
+		size += to - from;
+	}
+
+	/**
+	 * <p><des> 在末尾追加另一个动态数组的全部元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public void addAll(LongList other){
+		addAll(other.elements, 0, other.size);
+	}
+
+	/**
+	 * <p><des> 返还指定位置的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public long get(int index){
+		if(index >= size){
+			throw outOfBounds(index);
+		}
+		return elements[index];
+	}
+
+	/**
+	 * <p><des> 替换指定位置的元素, 返还原有元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public long set(int index, long value){
+		if(index >= size){
+			throw outOfBounds(index);
+		}
+		long previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+
+	/**
+	 * <p><des> 移除指定位置的元素, 其后的元素前移, 返还被移除的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public long removeAt(int index){
+		if(index >= size){
+			throw outOfBounds(index);
+		}
+		long removed = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return removed;
+	}
+
+	/**
+	 * <p><des> 返还元素第一次出现的位置, 不存在时返还 -1 </des></p>
+	 * @since 0.3.0
+	 */
+	public int indexOf(long value){
+		for(int i = 0; i < size; i++){
+			if(elements[i] == value){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p><des> 返还元素最后一次出现的位置, 不存在时返还 -1 </des></p>
+	 * @since 0.3.0
+	 */
+	public int lastIndexOf(long value){
+		for(int i = size - 1; i >= 0; i--){
+			if(elements[i] == value){
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * <p><des> 是否包含元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean contains(long value){
+		return indexOf(value) >= 0;
+	}
+
+	/**
+	 * <p><des> 按升序排序 </des></p>
+	 * @since 0.3.0
+	 */
+	public void sort(){
+		Arrays.sort(elements, 0, size);
+	}
+
+	/**
+	 * <p><des> 在已升序排序的动态数组中二分查找元素, 返还值的含义同 Arrays.binarySearch </des></p>
+	 * @since 0.3.0
+	 */
+	public int binarySearch(long value){
+		return Arrays.binarySearch(elements, 0, size, value);
+	}
+
+	/**
+	 * <p><des> 元素个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * <p><des> 是否没有元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * <p><des> 移除全部元素, 保留已分配的容量 </des></p>
+	 * @since 0.3.0
+	 */
+	public void clear(){
+		size = 0;
+	}
+
+	/**
+	 * <p><des> 保证容量不小于参数, 可在批量追加前预先分配 </des></p>
+	 * @since 0.3.0
+	 */
+	public void ensureCapacity(int capacity){
+		if(capacity > elements.length){
+			grow(capacity);
+		}
+	}
+
+	/**
+	 * <p><des> 将容量缩减为元素个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public void trimToSize(){
+		if(size < elements.length){
+			elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+		}
+	}
+
+	/**
+	 * <p><des> 返还包含全部元素的新数组 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * long[] values = ids.toArray();
+	 * Testing.printlnObject(ArrayUtil.toString(values));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public long[] toArray(){
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * <p><des> 返还包含全部元素的新 List, 元素装箱为 Long </des></p>
+	 * @since 0.3.0
+	 */
+	public List<Long> toList(){
+		List<Long> list = CollectionUtil.newList(size);
+		for(int i = 0; i < size; i++){
+			list.add(elements[i]);
+		}
+		return list;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj){
+			return true;
+		}
+		if(!(obj instanceof LongList) || ((LongList) obj).size != size){
+			return false;
+		}
+		long[] others = ((LongList) obj).elements;
+		for(int i = 0; i < size; i++){
+			if(elements[i] != others[i]){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for(int i = 0; i < size; i++){
+			hash = 31 * hash + (int) (elements[i] ^ (elements[i] >>> 32));
+		}
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(size * 4 + 2).append('[');
+		for(int i = 0; i < size; i++){
+			if(i > 0){
+				builder.append(", ");
+			}
+			builder.append(elements[i]);
+		}
+		return builder.append(']').toString();
+	}
+
+	/** <p><des> 扩容为原容量的 1.5 倍, 且不小于参数 </des></p> */
+	private void grow(int minCapacity){
+		int capacity = elements.length + (elements.length >> 1);
+		if(capacity < minCapacity || capacity < 0){
+			capacity = Math.max(minCapacity, 8);
+		}
+		elements = Arrays.copyOf(elements, capacity);
+	}
+
+	/** <p><des> 下标越界的异常 </des></p> */
+	private IndexOutOfBoundsException outOfBounds(int index){
+		return new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+}
@@ -0,0 +1,196 @@
+package fan.core.util.collection;
+
+import java.io.Closeable;
+import java.io.File;
+/**
+ * <p> <b> @描述：</b> 堆外的 int 大数组。元素保存在直接内存或内存映射文件中, 不占用堆, 不增加垃圾回收的停顿,
+ * 长度可超过 2^31; 用完后应调用 free 立即释放内存。可通过 save 保存到文件, 重启后以 load 读回直接内存,
+ * 或以 map 直接映射文件, 由操作系统按需载入。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-31
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class OffHeapIntArray implements Closeable {
+
+	// storage kind recorded in the file header
+	private static final long KIND = 2;
+	// header parameter holding the length
+	private static final int LENGTH = 0;
+	private static final int SHIFT = 2;
+
+	private final OffHeapStorage storage;
+	private long length;
+
+	private OffHeapIntArray(OffHeapStorage storage, long length){
+		this.storage = storage;
+		this.length = length;
+		storage.param(LENGTH, length);
+	}
+
+	/**
+	 * <p><des> 在直接内存中创建指定长度的数组, 元素为 0 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * <notes>// 3 billion elements</notes>
+	 * OffHeapIntArray array = new OffHeapIntArray(3000000000L);
+	 * array.set(2999999999L, 1001);
+	 * Testing.printlnObject(array.get(2999999999L));
+	 * array.free();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public OffHeapIntArray(long length){
+		this(OffHeapStorage.allocate(KIND, checkLength(length) << SHIFT), length);
+	}
+
+	/**
+	 * <p><des> 将文件映射为数组, 修改直接写入文件。文件不存在时创建指定长度的数组, 已存在时保留原有内容,
+	 * 原长度小于参数时扩大 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * OffHeapIntArray array = OffHeapIntArray.map(new File("data/ids.bin"), 1000000);
+	 * array.set(0, 1001);
+	 * <notes>// unmaps the file, the content stays on disk</notes>
+	 * array.free();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static OffHeapIntArray map(File file, long length){
+		OffHeapStorage storage = OffHeapStorage.map(file, KIND, checkLength(length) << SHIFT);
+		return new OffHeapIntArray(storage, Math.max(length, storage.param(LENGTH)));
+	}
+
+	/**
+	 * <p><des> 将 save 保存的文件读入直接内存 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * array.save(new File("data/ids.bin"));
+	 * array.free();
+	 * <notes>// after restart</notes>
+	 * OffHeapIntArray array = OffHeapIntArray.load(new File("data/ids.bin"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static OffHeapIntArray load(File file){
+		OffHeapStorage storage = OffHeapStorage.load(file, KIND);
+		return new OffHeapIntArray(storage, storage.param(LENGTH));
+	}
+
+	/**
+	 * <p><des> 数组长度 </des></p>
+	 * @since 0.3.0
+	 */
+	public long length(){
+		return length;
+	}
+
+	/**
+	 * <p><des> 返还指定位置的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public int get(long index){
+		if(index < 0 || index >= length){
+			throw outOfBounds(index);
+		}
+		return storage.getInt(index << SHIFT);
+	}
+
+	/**
+	 * <p><des> 替换指定位置的元素 </des></p>
+	 * @since 0.3.0
+	 */
+	public void set(long index, int value){
+		if(index < 0 || index >= length){
+			throw outOfBounds(index);
+		}
+		storage.putInt(index << SHIFT, value);
+	}
+
+	/**
+	 * <p><des> 将 [from, to) 范围内的元素置为参数 </des></p>
+	 * @since 0.3.0
+	 */
+	public void fill(long from, long to, int value){
+		if(from < 0 || to > length || from > to){
+			throw new IndexOutOfBoundsException("from: " + from + ", to: " + to + ", length: " + length);
+		}
+		for(long index = from; index < to; index++){
+			storage.putInt(index << SHIFT, value);
+		}
+	}
+
+	/**
+	 * <p><des> 扩大数组长度, 新增的元素为 0, 参数不大于当前长度时不变 </des></p>
+	 * @since 0.3.0
+	 */
+	public void grow(long newLength){
+		if(newLength > length){
+			storage.grow(newLength << SHIFT);
+			length = newLength;
+			storage.param(LENGTH, length);
+		}
+	}
+
+	/**
+	 * <p><des> 是否映射文件 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isMapped(){
+		return storage.isMapped();
+	}
+
+	/**
+	 * <p><des> 保存到文件, 可由 load 或 map 读回; 已映射到同一文件时只将修改写回磁盘 </des></p>
+	 * @since 0.3.0
+	 */
+	public void save(File file){
+		storage.save(file);
+	}
+
+	/**
+	 * <p><des> 将映射文件的修改写回磁盘, 不是映射文件时不做任何事 </des></p>
+	 * @since 0.3.0
+	 */
+	public void force(){
+		storage.force();
+	}
+
+	/**
+	 * <p><des> 立即释放内存或解除文件映射, 之后不能再访问数组, 可重复调用 </des></p>
+	 * @since 0.3.0
+	 */
+	public void free(){
+		storage.free();
+		length = 0;
+	}
+
+	/**
+	 * <p><des> 同 free, 可用于 try-finally 等关闭资源的场合 </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	public void close(){
+		free();
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapIntArray[length=" + length + (storage.isMapped() ? ", mapped" : "") + (storage.isFreed() ? ", freed" : "") + "]";
+	}
+
+	/** <p><des> 下标越界或已释放的异常 </des></p> */
+	private RuntimeException outOfBounds(long index){
+		storage.checkFreed();
+		return new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+	}
+
+	/** <p><des> 校验数组长度 </des></p> */
+	private static long checkLength(long length){
+		if(length < 0 || length > Long.MAX_VALUE >> SHIFT){
+			throw new IllegalArgumentException("Illegal Length: " + length);
+		}
+		return length;
+	}
+
+}
@@ -0,0 +1,357 @@
+package fan.core.util.collection;
+
+import java.io.Closeable;
+import java.io.File;
+/**
+ * <p> <b> @描述：</b> 堆外的 long 到 long 散列表。开放定址, 线性探测, 键值对保存在直接内存或内存映射文件中,
+ * 不占用堆, 不增加垃圾回收的停顿, 槽位数可超过 2^31; 用完后应调用 free 立即释放内存。
+ * 可通过 save 保存到文件, 重启后以 load 读回直接内存, 或以 map 直接映射文件。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-31
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class OffHeapLongLongMap implements Closeable {
+
+	// storage kind recorded in the file header
+	private static final long KIND = 3;
+	// header parameters
+	private static final int SLOTS = 0, SIZE = 1, HAS_ZERO = 2, ZERO_VALUE = 3;
+	// marks an empty slot, the key 0 itself is kept in the header
+	private static final long FREE = 0;
+	// bytes per slot, the key followed by the value
+	private static final int SLOT_BYTES = 16;
+	private static final double LOAD_FACTOR = Hashing.LOAD_FACTOR;
+
+	private OffHeapStorage storage;
+	private long mask;
+	// number of entries, including the key 0, mirrored in the header
+	private long size;
+	private boolean hasZero;
+	private long resizeAt;
+
+	private OffHeapLongLongMap(OffHeapStorage storage){
+		this.storage = storage;
+		long slots = storage.param(SLOTS);
+		this.mask = slots - 1;
+		this.size = storage.param(SIZE);
+		this.hasZero = storage.param(HAS_ZERO) != 0;
+		this.resizeAt = resizeAt(slots);
+	}
+
+	/**
+	 * <p><des> 在直接内存中创建可容纳指定键值对个数而不扩容的散列表 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * OffHeapLongLongMap map = new OffHeapLongLongMap(100000000L);
+	 * map.put(1001L, 2002L);
+	 * <notes>// 2002</notes>
+	 * Testing.printlnObject(map.get(1001L, -1));
+	 * map.free();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public OffHeapLongLongMap(long expectedSize){
+		this(allocate(null, capacity(expectedSize)));
+	}
+
+	/**
+	 * <p><des> 将文件映射为散列表, 修改直接写入文件。文件不存在时创建, 已存在时保留原有内容 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * OffHeapLongLongMap map = OffHeapLongLongMap.map(new File("data/mapping.bin"), 100000000L);
+	 * map.put(1001L, 2002L);
+	 * map.free();
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static OffHeapLongLongMap map(File file, long expectedSize){
+		OffHeapLongLongMap map = new OffHeapLongLongMap(allocate(file, capacity(expectedSize)));
+		if(map.resizeAt < expectedSize){
+			map.rehash(capacity(expectedSize));
+		}
+		return map;
+	}
+
+	/**
+	 * <p><des> 将 save 保存的文件读入直接内存 </des></p>
+	 * <p><pre>
+	 * <b><em>e.g.</em></b>
+	 * map.save(new File("data/mapping.bin"));
+	 * map.free();
+	 * <notes>// after restart</notes>
+	 * OffHeapLongLongMap map = OffHeapLongLongMap.load(new File("data/mapping.bin"));
+	 * </pre></p>
+	 * @since 0.3.0
+	 */
+	public static OffHeapLongLongMap load(File file){
+		return new OffHeapLongLongMap(OffHeapStorage.load(file, KIND));
+	}
+
+	/**
+	 * <p><des> 放入键值对, 键原来不存在时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean put(long key, long value){
+		storage.checkFreed();
+		if(key == FREE){
+			boolean added = !hasZero;
+			storage.param(ZERO_VALUE, value);
+			if(added){
+				setZero(true);
+				setSize(size + 1);
+			}
+			return added;
+		}
+		long slot = Hashing.mix64(key) & mask;
+		for(long current; (current = storage.getLong(slot * SLOT_BYTES)) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				storage.putLong(slot * SLOT_BYTES + 8, value);
+				return false;
+			}
+		}
+		storage.putLong(slot * SLOT_BYTES, key);
+		storage.putLong(slot * SLOT_BYTES + 8, value);
+		setSize(size + 1);
+		if(size - (hasZero ? 1 : 0) >= resizeAt){
+			rehash((mask + 1) << 1);
+		}
+		return true;
+	}
+
+	/**
+	 * <p><des> 返还键对应的值, 键不存在时返还参数2 </des></p>
+	 * @since 0.3.0
+	 */
+	public long get(long key, long defaultValue){
+		storage.checkFreed();
+		if(key == FREE){
+			return hasZero ? storage.param(ZERO_VALUE) : defaultValue;
+		}
+		long slot = Hashing.mix64(key) & mask;
+		for(long current; (current = storage.getLong(slot * SLOT_BYTES)) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return storage.getLong(slot * SLOT_BYTES + 8);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * <p><des> 是否包含键 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean containsKey(long key){
+		storage.checkFreed();
+		if(key == FREE){
+			return hasZero;
+		}
+		long slot = Hashing.mix64(key) & mask;
+		for(long current; (current = storage.getLong(slot * SLOT_BYTES)) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 移除键, 键原来存在时返还true </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean remove(long key){
+		storage.checkFreed();
+		if(key == FREE){
+			if(!hasZero){
+				return false;
+			}
+			setZero(false);
+			storage.param(ZERO_VALUE, 0);
+			setSize(size - 1);
+			return true;
+		}
+		long slot = Hashing.mix64(key) & mask;
+		for(long current; (current = storage.getLong(slot * SLOT_BYTES)) != FREE; slot = (slot + 1) & mask){
+			if(current == key){
+				shiftKeys(slot);
+				setSize(size - 1);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p><des> 键值对个数 </des></p>
+	 * @since 0.3.0
+	 */
+	public long size(){
+		return size;
+	}
+
+	/**
+	 * <p><des> 是否没有键值对 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isEmpty(){
+		return size == 0;
+	}
+
+	/**
+	 * <p><des> 移除全部键值对, 保留已分配的内存 </des></p>
+	 * @since 0.3.0
+	 */
+	public void clear(){
+		storage.checkFreed();
+		storage.fill(0, (mask + 1) * SLOT_BYTES, FREE);
+		setZero(false);
+		storage.param(ZERO_VALUE, 0);
+		setSize(0);
+	}
+
+	/**
+	 * <p><des> 是否映射文件 </des></p>
+	 * @since 0.3.0
+	 */
+	public boolean isMapped(){
+		return storage.isMapped();
+	}
+
+	/**
+	 * <p><des> 保存到文件, 可由 load 或 map 读回; 已映射到同一文件时只将修改写回磁盘 </des></p>
+	 * @since 0.3.0
+	 */
+	public void save(File file){
+		storage.save(file);
+	}
+
+	/**
+	 * <p><des> 将映射文件的修改写回磁盘, 不是映射文件时不做任何事 </des></p>
+	 * @since 0.3.0
+	 */
+	public void force(){
+		storage.force();
+	}
+
+	/**
+	 * <p><des> 立即释放内存或解除文件映射, 之后不能再访问散列表, 可重复调用 </des></p>
+	 * @since 0.3.0
+	 */
+	public void free(){
+		storage.free();
+		size = 0;
+		hasZero = false;
+	}
+
+	/**
+	 * <p><des> 同 free, 可用于 try-finally 等关闭资源的场合 </des></p>
+	 * @since 0.3.0
+	 */
+	@Override
+	public void close(){
+		free();
+	}
+
+	@Override
+	public String toString() {
+		return "OffHeapLongLongMap[size=" + size + ", slots=" + (storage.isFreed() ? 0 : mask + 1)
+			+ (storage.isMapped() ? ", mapped" : "") + (storage.isFreed() ? ", freed" : "") + "]";
+	}
+
+	/** <p><des> 更新键值对个数, 同时写入文件头 </des></p> */
+	private void setSize(long size){
+		this.size = size;
+		storage.param(SIZE, size);
+	}
+
+	/** <p><des> 更新是否包含键 0, 同时写入文件头 </des></p> */
+	private void setZero(boolean hasZero){
+		this.hasZero = hasZero;
+		storage.param(HAS_ZERO, hasZero ? 1 : 0);
+	}
+
+	/**
+	 * <p><des> 以参数槽位数重新散列。先在直接内存中建立新表, 直接内存的散列表替换为新表,
+	 * 映射文件的散列表扩大文件后复制回来 </des></p>
+	 */
+	private void rehash(long slots){
+		OffHeapStorage table = allocate(null, slots);
+		long newMask = slots - 1;
+		for(long slot = 0; slot <= mask; slot++){
+			long key = storage.getLong(slot * SLOT_BYTES);
+			if(key != FREE){
+				long target = Hashing.mix64(key) & newMask;
+				while(table.getLong(target * SLOT_BYTES) != FREE){
+					target = (target + 1) & newMask;
+				}
+				table.putLong(target * SLOT_BYTES, key);
+				table.putLong(target * SLOT_BYTES + 8, storage.getLong(slot * SLOT_BYTES + 8));
+			}
+		}
+		for(int i = SIZE; i <= ZERO_VALUE; i++){
+			table.param(i, storage.param(i));
+		}
+		if(storage.isMapped()){
+			storage.grow(slots * SLOT_BYTES);
+			storage.copyFrom(table, slots * SLOT_BYTES);
+			storage.param(SLOTS, slots);
+			table.free();
+		}else{
+			storage.free();
+			storage = table;
+		}
+		mask = newMask;
+		resizeAt = resizeAt(slots);
+	}
+
+	/** <p><des> 清空槽位, 并将其后探测链上的键值对前移填补, 保证查找不因空位中断 </des></p> */
+	private void shiftKeys(long slot){
+		long last = slot;
+		for(slot = (last + 1) & mask; ; slot = (slot + 1) & mask){
+			long key = storage.getLong(slot * SLOT_BYTES);
+			if(key == FREE){
+				storage.putLong(last * SLOT_BYTES, FREE);
+				storage.putLong(last * SLOT_BYTES + 8, 0);
+				return;
+			}
+			// the key may move to last only if last lies between its home slot and slot
+			long home = Hashing.mix64(key) & mask;
+			if(((slot - home) & mask) >= ((slot - last) & mask)){
+				storage.putLong(last * SLOT_BYTES, key);
+				storage.putLong(last * SLOT_BYTES + 8, storage.getLong(slot * SLOT_BYTES + 8));
+				last = slot;
+			}
+		}
+	}
+
+	/** <p><des> 分配指定槽位数的存储, 参数1为null时使用直接内存, 映射已存在的文件时保留其槽位数 </des></p> */
+	private static OffHeapStorage allocate(File file, long slots){
+		OffHeapStorage storage = file == null
+			? OffHeapStorage.allocate(KIND, slots * SLOT_BYTES)
+			: OffHeapStorage.map(file, KIND, 0);
+		if(storage.param(SLOTS) == 0){
+			storage.grow(slots * SLOT_BYTES);
+			storage.param(SLOTS, slots);
+		}
+		return storage;
+	}
+
+	/** <p><des> 容纳指定个数的键值对而不扩容所需的槽位数, 为 2 的幂 </des></p> */
+	private static long capacity(long expectedSize){
+		if(expectedSize < 0){
+			throw new IllegalArgumentException("Illegal Capacity: " + expectedSize);
+		}
+		long required = (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+		long slots = 16;
+		while(slots < required){
+			slots <<= 1;
+		}
+		return slots;
+	}
+
+	/** <p><des> 槽位数对应的扩容阈值, 至少保留一个空槽位以结束探测 </des></p> */
+	private static long resizeAt(long slots){
+		return Math.min(slots - 1, (long) Math.ceil(slots * LOAD_FACTOR));
+	}
+
+}
@@ -0,0 +1,356 @@
+package fan.core.util.collection;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import fan.core.exception.ExecutetimeException;
+import fan.core.util.FileUtil;
+/**
+ * <p> <b> @描述：</b> 堆外存储。由多个直接缓冲区或内存映射缓冲区分块组成, 总字节数可超过 2^31;
+ * 文件格式为 64 字节的文件头(魔数, 类型, 字节序及使用者的参数)后接数据。不是线程安全的
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-07-31
+ * <p> <b> @since 0.3.0 </b>
+ */
+final class OffHeapStorage {
+
+	// every chunk but the last holds exactly CHUNK_SIZE bytes, a multiple of 8 so no value straddles two chunks
+	static final int CHUNK_SHIFT = 27, CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+	static final int HEADER_SIZE = 64;
+	// header slots, PARAM and above are free for the owner
+	private static final int MAGIC_SLOT = 0, KIND_SLOT = 1, ORDER_SLOT = 2;
+	static final int PARAM = 3;
+	// "FANOFFHP"
+	private static final long MAGIC = 0x46414E4F46464850L;
+	private static final long BIG_ENDIAN = 1, LITTLE_ENDIAN = 2;
+
+	// big endian, on heap for direct storage and mapped for file storage
+	private final ByteBuffer header;
+	// byte order of the data, native unless loaded from a file written elsewhere
+	private final ByteOrder order;
+	// the mapped file and its canonical path, null for direct storage
+	private RandomAccessFile file;
+	private String mappedPath;
+	private ByteBuffer[] chunks = new ByteBuffer[0];
+	private long capacity;
+	private boolean freed;
+
+	private OffHeapStorage(ByteBuffer header, ByteOrder order, RandomAccessFile file){
+		this.header = header;
+		this.order = order;
+		this.file = file;
+	}
+
+	/** <p><des> 分配指定字节数的直接内存, 内容为 0 </des></p> */
+	static OffHeapStorage allocate(long kind, long bytes){
+		OffHeapStorage storage = new OffHeapStorage(ByteBuffer.allocate(HEADER_SIZE), ByteOrder.nativeOrder(), null);
+		storage.initHeader(kind);
+		storage.grow(bytes);
+		return storage;
+	}
+
+	/** <p><des> 将文件映射为存储, 文件不存在或为空时创建, 已存在时校验类型并保留原有内容, 不足参数字节数时扩大 </des></p> */
+	static OffHeapStorage map(File path, long kind, long bytes){
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(path, "rw");
+			boolean exists = file.length() > 0;
+			if(exists && file.length() < HEADER_SIZE){
+				throw new ExecutetimeException(path + " is not an off-heap storage file");
+			}
+			ByteBuffer header = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+			OffHeapStorage storage;
+			if(exists){
+				storage = new OffHeapStorage(header, checkHeader(header, kind, path), file);
+				storage.grow(file.length() - HEADER_SIZE);
+			}else{
+				storage = new OffHeapStorage(header, ByteOrder.nativeOrder(), file);
+				storage.initHeader(kind);
+			}
+			storage.mappedPath = path.getCanonicalPath();
+			storage.grow(bytes);
+			return storage;
+		} catch (IOException e) {
+			FileUtil.closeStream(file);
+			throw new ExecutetimeException(e);
+		} catch (RuntimeException e) {
+			FileUtil.closeStream(file);
+			throw e;
+		}
+	}
+
+	/** <p><des> 将 save 保存的文件读入直接内存 </des></p> */
+	static OffHeapStorage load(File path, long kind){
+		FileInputStream in = FileUtil.getFileInputStream(path);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			if(channel.size() < HEADER_SIZE){
+				throw new ExecutetimeException(path + " is not an off-heap storage file");
+			}
+			readFully(channel, header);
+			OffHeapStorage storage = new OffHeapStorage(header, checkHeader(header, kind, path), null);
+			storage.grow(channel.size() - HEADER_SIZE);
+			for(ByteBuffer chunk : storage.chunks){
+				readFully(channel, chunk.duplicate());
+			}
+			return storage;
+		} catch (IOException e) {
+			throw new ExecutetimeException(e);
+		} finally {
+			FileUtil.closeStream(in);
+		}
+	}
+
+	long getLong(long offset){
+		return chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+	}
+
+	void putLong(long offset, long value){
+		chunks[(int) (offset >>> CHUNK_SHIFT)].putLong((int) (offset & CHUNK_MASK), value);
+	}
+
+	int getInt(long offset){
+		return chunks[(int) (offset >>> CHUNK_SHIFT)].getInt((int) (offset & CHUNK_MASK));
+	}
+
+	void putInt(long offset, int value){
+		chunks[(int) (offset >>> CHUNK_SHIFT)].putInt((int) (offset & CHUNK_MASK), value);
+	}
+
+	/** <p><des> 读取文件头中使用者的参数 </des></p> */
+	long param(int index){
+		checkFreed();
+		return header.getLong((PARAM + index) * 8);
+	}
+
+	/** <p><des> 写入文件头中使用者的参数 </des></p> */
+	void param(int index, long value){
+		checkFreed();
+		header.putLong((PARAM + index) * 8, value);
+	}
+
+	/** <p><des> 已分配的字节数 </des></p> */
+	long capacity(){
+		return capacity;
+	}
+
+	boolean isMapped(){
+		return file != null;
+	}
+
+	boolean isFreed(){
+		return freed;
+	}
+
+	/** <p><des> 扩大到参数字节数, 新增部分为 0, 参数不大于已分配字节数时不变 </des></p> */
+	void grow(long bytes){
+		checkFreed();
+		if(bytes <= capacity){
+			return;
+		}
+		bytes = (bytes + 7) & ~7L;
+		long chunkCount = (bytes + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+		if(chunkCount > Integer.MAX_VALUE){
+			throw new ExecutetimeException("off-heap storage too large: " + bytes + " bytes");
+		}
+		try {
+			if(file != null){
+				file.setLength(HEADER_SIZE + bytes);
+			}
+			ByteBuffer[] grown = Arrays.copyOf(chunks, (int) chunkCount);
+			for(int i = Math.max(0, chunks.length - 1); i < grown.length; i++){
+				int size = (int) Math.min(CHUNK_SIZE, bytes - ((long) i << CHUNK_SHIFT));
+				if(i < chunks.length && chunks[i].capacity() == size){
+					continue;
+				}
+				ByteBuffer chunk = file == null
+					? ByteBuffer.allocateDirect(size)
+					: file.getChannel().map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + ((long) i << CHUNK_SHIFT), size);
+				chunk.order(order);
+				if(i < chunks.length){
+					// the last partial chunk is replaced, mapped chunks already see the old content
+					if(file == null){
+						ByteBuffer old = chunks[i].duplicate();
+						old.clear();
+						chunk.put(old);
+						chunk.clear();
+					}
+					clean(chunks[i]);
+				}
+				grown[i] = chunk;
+			}
+			chunks = grown;
+			capacity = bytes;
+		} catch (IOException e) {
+			throw new ExecutetimeException(e);
+		}
+	}
+
+	/** <p><des> 以参数填充 [from, to) 字节范围内的每个 long </des></p> */
+	void fill(long from, long to, long value){
+		for(long offset = from; offset < to; offset += 8){
+			putLong(offset, value);
+		}
+	}
+
+	/** <p><des> 从另一个存储复制前 bytes 个字节 </des></p> */
+	void copyFrom(OffHeapStorage other, long bytes){
+		for(int i = 0; ((long) i << CHUNK_SHIFT) < bytes; i++){
+			ByteBuffer source = other.chunks[i].duplicate();
+			source.clear();
+			source.limit((int) Math.min(source.capacity(), bytes - ((long) i << CHUNK_SHIFT)));
+			ByteBuffer target = chunks[i].duplicate();
+			target.clear();
+			target.put(source);
+		}
+	}
+
+	/** <p><des> 将文件头及数据保存到文件, 映射到同一文件时只需将修改写回磁盘 </des></p> */
+	void save(File path){
+		checkFreed();
+		if(file != null && sameFile(path)){
+			force();
+			return;
+		}
+		FileOutputStream out = FileUtil.getFileOutputStream(path);
+		try {
+			FileChannel channel = out.getChannel();
+			ByteBuffer head = header.duplicate();
+			head.clear();
+			writeFully(channel, head);
+			for(ByteBuffer chunk : chunks){
+				ByteBuffer data = chunk.duplicate();
+				data.clear();
+				writeFully(channel, data);
+			}
+		} catch (IOException e) {
+			throw new ExecutetimeException(e);
+		} finally {
+			FileUtil.closeStream(out);
+		}
+	}
+
+	/** <p><des> 将映射文件的修改写回磁盘, 直接内存时不做任何事 </des></p> */
+	void force(){
+		checkFreed();
+		if(file != null){
+			((MappedByteBuffer) header).force();
+			for(ByteBuffer chunk : chunks){
+				((MappedByteBuffer) chunk).force();
+			}
+		}
+	}
+
+	/** <p><des> 立即释放内存或解除映射, 之后不能再访问, 可重复调用 </des></p> */
+	void free(){
+		if(freed){
+			return;
+		}
+		freed = true;
+		ByteBuffer[] released = chunks;
+		chunks = new ByteBuffer[0];
+		capacity = 0;
+		for(ByteBuffer chunk : released){
+			clean(chunk);
+		}
+		if(file != null){
+			clean(header);
+			FileUtil.closeStream(file);
+			file = null;
+		}
+	}
+
+	/** <p><des> 已释放时抛出异常 </des></p> */
+	void checkFreed(){
+		if(freed){
+			throw new IllegalStateException("off-heap storage has been freed");
+		}
+	}
+
+	/** <p><des> 写入魔数, 类型及字节序 </des></p> */
+	private void initHeader(long kind){
+		header.putLong(MAGIC_SLOT * 8, MAGIC);
+		header.putLong(KIND_SLOT * 8, kind);
+		header.putLong(ORDER_SLOT * 8, order == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN);
+	}
+
+	/** <p><des> 是否映射的是参数文件 </des></p> */
+	private boolean sameFile(File path){
+		try {
+			return mappedPath.equals(path.getCanonicalPath());
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/** <p><des> 校验文件头的魔数与类型, 返还数据的字节序 </des></p> */
+	private static ByteOrder checkHeader(ByteBuffer header, long kind, File path){
+		if(header.getLong(MAGIC_SLOT * 8) != MAGIC){
+			throw new ExecutetimeException(path + " is not an off-heap storage file");
+		}
+		if(header.getLong(KIND_SLOT * 8) != kind){
+			throw new ExecutetimeException(path + " holds another kind of off-heap storage");
+		}
+		return header.getLong(ORDER_SLOT * 8) == BIG_ENDIAN ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+	}
+
+	/** <p><des> 读满缓冲区 </des></p> */
+	private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()){
+			if(channel.read(buffer) < 0){
+				throw new IOException("unexpected end of off-heap storage file");
+			}
+		}
+	}
+
+	/** <p><des> 写出缓冲区的全部字节 </des></p> */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining()){
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * <p><des> 立即释放直接缓冲区的内存或解除映射。Java 8 及以前调用缓冲区的 cleaner, 之后的版本调用 Unsafe.invokeCleaner,
+	 * 均不可用时留给垃圾回收 </des></p>
+	 */
+	private static void clean(ByteBuffer buffer){
+		if(buffer == null || !buffer.isDirect()){
+			return;
+		}
+		try {
+			Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if(cleaner != null){
+				Method clean = cleaner.getClass().getMethod("clean");
+				clean.setAccessible(true);
+				clean.invoke(cleaner);
+			}
+			return;
+		} catch (Exception e) {
+			// not accessible after Java 8
+		}
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+		} catch (Exception e) {
+			// left to the garbage collector
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+package fan.core.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> ArrayUtil 基本类型批量运算与逐个顺序计算的参照循环的等价性测试, 覆盖各种长度(包括不足一轮展开的余数),
+ * 浮点数的 NaN, 正负零及无穷大
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-06
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class ArrayUtilKernelTest {
+
+	// lengths around the 4-way unrolling
+	private static final int MAX_LENGTH = 67;
+	private static final int ROUNDS = 200;
+	// doubles mixed into the special value arrays
+	private static final double[] SPECIALS = { Double.NaN, 0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+		Double.MIN_VALUE, -Double.MAX_VALUE, 1.0, -1.0 };
+
+	private final Random random = new Random(20140806L);
+
+	@Test
+	public void sumOfIntsMatchesLoop(){
+		for(int length = 0; length <= MAX_LENGTH; length++){
+			int[] origin = new int[length];
+			for(int i = 0; i < length; i++){
+				origin[i] = random.nextBoolean() ? random.nextInt() : (random.nextBoolean() ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+			}
+			long expected = 0;
+			for(int item : origin){
+				expected += item;
+			}
+			assertEquals(expected, ArrayUtil.sum(origin));
+		}
+	}
+
+	@Test
+	public void sumOfLongsMatchesLoop(){
+		for(int length = 0; length <= MAX_LENGTH; length++){
+			long[] origin = new long[length];
+			for(int i = 0; i < length; i++){
+				origin[i] = random.nextLong();
+			}
+			long expected = 0;
+			for(long item : origin){
+				expected += item;
+			}
+			// wraps around the same way in any order
+			assertEquals(expected, ArrayUtil.sum(origin));
+		}
+	}
+
+	@Test
+	public void sumOfExactDoublesMatchesLoop(){
+		for(int length = 0; length <= MAX_LENGTH; length++){
+			double[] origin = new double[length];
+			for(int i = 0; i < length; i++){
+				// multiples of 1/8 below 2^20, so every partial sum is exact in any order
+				origin[i] = (random.nextInt(1 << 23) - (1 << 22)) / 8.0;
+			}
+			double expected = 0;
+			for(double item : origin){
+				expected += item;
+			}
+			assertEquals(expected, ArrayUtil.sum(origin), 0.0);
+		}
+	}
+
+	@Test
+	public void sumOfDoublesIsWithinRoundingOfExactSum(){
+		for(int round = 0; round < ROUNDS; round++){
+			double[] origin = new double[random.nextInt(MAX_LENGTH + 1)];
+			BigDecimal exact = BigDecimal.ZERO;
+			double magnitude = 0;
+			for(int i = 0; i < origin.length; i++){
+				origin[i] = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 6);
+				exact = exact.add(new BigDecimal(origin[i]));
+				magnitude += Math.abs(origin[i]);
+			}
+			// both the loop and the partial sums are within n * ulp of the exact sum
+			double bound = origin.length * Math.ulp(magnitude) + Double.MIN_VALUE;
+			assertEquals(exact.doubleValue(), ArrayUtil.sum(origin), bound);
+		}
+	}
+
+	@Test
+	public void sumOfSpecialDoublesMatchesLoop(){
+		for(int round = 0; round < ROUNDS; round++){
+			double[] origin = specials(random.nextInt(MAX_LENGTH + 1));
+			double expected = 0, magnitude = 0;
+			for(int i = 0; i < origin.length; i++){
+				// finite values overflowing in one order only would differ, so keep them small
+				origin[i] = origin[i] == -Double.MAX_VALUE ? -1.0 : origin[i];
+				expected += origin[i];
+				magnitude += Double.isInfinite(origin[i]) ? 0 : Math.abs(origin[i]);
+			}
+			double actual = ArrayUtil.sum(origin);
+			if(Double.isNaN(expected) || Double.isInfinite(expected)){
+				// NaN and infinities propagate the same way in any order
+				assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+			}else{
+				assertEquals(expected, actual, 2 * origin.length * Math.ulp(magnitude));
+			}
+		}
+	}
+
+	@Test
+	public void minAndMaxOfDoublesMatchMathMinAndMax(){
+		for(int round = 0; round < ROUNDS * 5; round++){
+			double[] origin = specials(1 + random.nextInt(MAX_LENGTH));
+			double min = origin[0], max = origin[0];
+			for(double item : origin){
+				min = Math.min(min, item);
+				max = Math.max(max, item);
+			}
+			// compare bits, NaN equals NaN and -0.0 differs from 0.0
+			assertEquals(Double.doubleToLongBits(min), Double.doubleToLongBits(ArrayUtil.min(origin)));
+			assertEquals(Double.doubleToLongBits(max), Double.doubleToLongBits(ArrayUtil.max(origin)));
+		}
+	}
+
+	@Test
+	public void signedZerosAreOrdered(){
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(ArrayUtil.min(new double[]{ 0.0, -0.0 })));
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(ArrayUtil.min(new double[]{ -0.0, 0.0 })));
+		assertEquals(Double.doubleToLongBits(0.0), Double.doubleToLongBits(ArrayUtil.max(new double[]{ -0.0, 0.0 })));
+		assertEquals(Double.doubleToLongBits(0.0), Double.doubleToLongBits(ArrayUtil.max(new double[]{ 0.0, -0.0 })));
+		assertTrue(Double.isNaN(ArrayUtil.min(new double[]{ 1.0, Double.NaN, -1.0 })));
+		assertTrue(Double.isNaN(ArrayUtil.max(new double[]{ 1.0, Double.NaN, -1.0 })));
+	}
+
+	@Test
+	public void minAndMaxOfIntegralsMatchLoop(){
+		for(int length = 1; length <= MAX_LENGTH; length++){
+			int[] ints = new int[length];
+			long[] longs = new long[length];
+			for(int i = 0; i < length; i++){
+				ints[i] = random.nextInt();
+				longs[i] = random.nextLong();
+			}
+			int intMin = ints[0], intMax = ints[0];
+			long longMin = longs[0], longMax = longs[0];
+			for(int i = 0; i < length; i++){
+				intMin = Math.min(intMin, ints[i]);
+				intMax = Math.max(intMax, ints[i]);
+				longMin = Math.min(longMin, longs[i]);
+				longMax = Math.max(longMax, longs[i]);
+			}
+			assertEquals(intMin, ArrayUtil.min(ints));
+			assertEquals(intMax, ArrayUtil.max(ints));
+			assertEquals(longMin, ArrayUtil.min(longs));
+			assertEquals(longMax, ArrayUtil.max(longs));
+		}
+	}
+
+	@Test
+	public void indexOfAndCountEqualMatchLoop(){
+		for(int round = 0; round < ROUNDS; round++){
+			int length = random.nextInt(MAX_LENGTH + 1);
+			int[] ints = new int[length];
+			long[] longs = new long[length];
+			double[] doubles = specials(length);
+			for(int i = 0; i < length; i++){
+				ints[i] = random.nextInt(8);
+				longs[i] = random.nextInt(8);
+			}
+			int intTarget = random.nextInt(8);
+			double doubleTarget = SPECIALS[random.nextInt(SPECIALS.length)];
+			int intIndex = -1, longIndex = -1, doubleIndex = -1, intCount = 0, longCount = 0, doubleCount = 0;
+			for(int i = length - 1; i >= 0; i--){
+				if(ints[i] == intTarget){ intIndex = i; intCount++; }
+				if(longs[i] == intTarget){ longIndex = i; longCount++; }
+				if(doubles[i] == doubleTarget){ doubleIndex = i; doubleCount++; }
+			}
+			assertEquals(intIndex, ArrayUtil.indexOf(ints, intTarget));
+			assertEquals(longIndex, ArrayUtil.indexOf(longs, (long) intTarget));
+			assertEquals(doubleIndex, ArrayUtil.indexOf(doubles, doubleTarget));
+			assertEquals(intCount, ArrayUtil.countEqual(ints, intTarget));
+			assertEquals(longCount, ArrayUtil.countEqual(longs, (long) intTarget));
+			assertEquals(doubleCount, ArrayUtil.countEqual(doubles, doubleTarget));
+		}
+	}
+
+	@Test
+	public void addAndMultiplyMatchLoop(){
+		for(int length = 0; length <= MAX_LENGTH; length++){
+			int[] ints1 = new int[length], ints2 = new int[length], intSums = new int[length], intProducts = new int[length];
+			long[] longs1 = new long[length], longs2 = new long[length], longSums = new long[length], longProducts = new long[length];
+			double[] doubles1 = specials(length), doubles2 = specials(length);
+			double[] doubleSums = new double[length], doubleProducts = new double[length];
+			for(int i = 0; i < length; i++){
+				ints1[i] = random.nextInt();
+				ints2[i] = random.nextInt();
+				longs1[i] = random.nextLong();
+				longs2[i] = random.nextLong();
+				intSums[i] = ints1[i] + ints2[i];
+				intProducts[i] = ints1[i] * ints2[i];
+				longSums[i] = longs1[i] + longs2[i];
+				longProducts[i] = longs1[i] * longs2[i];
+				doubleSums[i] = doubles1[i] + doubles2[i];
+				doubleProducts[i] = doubles1[i] * doubles2[i];
+			}
+			assertArrayEquals(intSums, ArrayUtil.add(ints1, ints2));
+			assertArrayEquals(intProducts, ArrayUtil.multiply(ints1, ints2));
+			assertArrayEquals(longSums, ArrayUtil.add(longs1, longs2));
+			assertArrayEquals(longProducts, ArrayUtil.multiply(longs1, longs2));
+			assertBitsEqual(doubleSums, ArrayUtil.add(doubles1, doubles2));
+			assertBitsEqual(doubleProducts, ArrayUtil.multiply(doubles1, doubles2));
+		}
+	}
+
+	@Test
+	public void nullIsAnEmptyArray(){
+		assertEquals(0, ArrayUtil.sum((int[]) null));
+		assertEquals(0, ArrayUtil.sum((long[]) null));
+		assertEquals(0.0, ArrayUtil.sum((double[]) null), 0.0);
+		assertEquals(-1, ArrayUtil.indexOf((int[]) null, 1));
+		assertEquals(0, ArrayUtil.countEqual((double[]) null, 1.0));
+		assertEquals(0, ArrayUtil.add((int[]) null, null).length);
+		assertEquals(0, ArrayUtil.multiply((long[]) null, new long[0]).length);
+		assertEquals(0, ArrayUtil.add(new double[0], null).length);
+		try {
+			ArrayUtil.add(null, new int[]{ 1 });
+			fail("lengths differ");
+		} catch (ExecutetimeException e) {
+			// expected
+		}
+		try {
+			ArrayUtil.min((double[]) null);
+			fail("no minimum of null");
+		} catch (ExecutetimeException e) {
+			// expected
+		}
+	}
+
+	/** <p><des> 随机的特殊值与普通值混合的数组 </des></p> */
+	private double[] specials(int length){
+		double[] result = new double[length];
+		for(int i = 0; i < length; i++){
+			result[i] = random.nextInt(4) == 0 ? SPECIALS[random.nextInt(SPECIALS.length)] : random.nextDouble() * 200 - 100;
+		}
+		return result;
+	}
+
+	/** <p><des> 按位比较两个浮点数组 </des></p> */
+	private static void assertBitsEqual(double[] expected, double[] actual){
+		assertEquals(expected.length, actual.length);
+		for(int i = 0; i < expected.length; i++){
+			assertEquals(Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]));
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package fan.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import fan.core.exception.ExecutetimeException;
+/**
+ * <p> <b> @描述：</b> BeanUtil 以字符串填充 BigDecimal, BigInteger 及日期字段的转换测试
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-07
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class BeanUtilTest {
+
+	@Test
+	public void stringsAreConvertedToNumericFields(){
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("amount", "12.5");
+		map.put("count", " 10086 ");
+		map.put("quantity", "7");
+		Order order = BeanUtil.toBean(map, Order.class);
+		assertEquals(new BigDecimal("12.5"), order.amount);
+		assertEquals(BigInteger.valueOf(10086), order.count);
+		assertEquals(7, order.quantity);
+	}
+
+	@Test
+	public void stringsAreConvertedToDateFields(){
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("created", "2014-08-07 10:20:30");
+		map.put("updated", "2014-08-07 10:20:30");
+		Order order = BeanUtil.toBean(map, Order.class);
+		Date expected = DateUtil.parseDate("2014-08-07 10:20:30", "yyyy-MM-dd HH:mm:ss");
+		assertEquals(expected, order.created);
+		assertEquals(expected.getTime(), order.updated.getTime());
+	}
+
+	@Test
+	public void malformedNumbersAreRejected(){
+		try {
+			BeanUtil.convertValue("12,5", BigDecimal.class);
+			fail("not a number");
+		} catch (ExecutetimeException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 以字符串填充的对象
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-07
+	 */
+	public static class Order {
+
+		BigDecimal amount;
+		BigInteger count;
+		int quantity;
+		Date created;
+		Timestamp updated;
+	}
+
+}
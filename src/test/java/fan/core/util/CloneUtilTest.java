@@ -0,0 +1,131 @@
+package fan.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import org.junit.Test;
+/**
+ * <p> <b> @描述：</b> CloneUtil 深拷贝容器时保留比较器及访问顺序, 以及共享 JDK 的不可变值类型的测试
+ * <p> <b> @作者：</b> fancore
+ * <p> <b> @邮箱：</b> fancore@126.com
+ * <p> <b> @日期：</b> 2014-08-07
+ * <p> <b> @since 0.3.0 </b>
+ */
+public class CloneUtilTest {
+
+	@Test
+	public void treeSetKeepsComparator(){
+		TreeSet<String> origin = new TreeSet<String>(Collections.reverseOrder());
+		origin.addAll(Arrays.asList("a", "c", "b"));
+		TreeSet<String> copy = CloneUtil.deepCopy(origin);
+		assertEquals(origin.comparator(), copy.comparator());
+		assertEquals(Arrays.asList("c", "b", "a"), new ArrayList<String>(copy));
+	}
+
+	@Test
+	public void treeMapKeepsComparator(){
+		TreeMap<String, Integer> origin = new TreeMap<String, Integer>(Collections.reverseOrder());
+		origin.put("a", 1);
+		origin.put("c", 3);
+		origin.put("b", 2);
+		TreeMap<String, Integer> copy = CloneUtil.deepCopy(origin);
+		assertEquals(origin.comparator(), copy.comparator());
+		assertEquals("c", copy.firstKey());
+	}
+
+	@Test
+	public void priorityQueueKeepsComparator(){
+		PriorityQueue<String> origin = new PriorityQueue<String>(4, Collections.reverseOrder());
+		origin.addAll(Arrays.asList("a", "c", "b"));
+		PriorityQueue<String> copy = CloneUtil.deepCopy(origin);
+		assertEquals(origin.comparator(), copy.comparator());
+		assertEquals("c", copy.peek());
+		assertEquals(3, copy.size());
+	}
+
+	@Test
+	public void priorityQueueOfIncomparableElementsIsCopied(){
+		PriorityQueue<int[]> origin = new PriorityQueue<int[]>(4, new java.util.Comparator<int[]>() {
+			@Override
+			public int compare(int[] o1, int[] o2) {
+				return o2[0] - o1[0];
+			}
+		});
+		origin.add(new int[]{ 1 });
+		origin.add(new int[]{ 3 });
+		origin.add(new int[]{ 2 });
+		PriorityQueue<int[]> copy = CloneUtil.deepCopy(origin);
+		assertEquals(3, copy.peek()[0]);
+	}
+
+	@Test
+	public void linkedHashMapKeepsAccessOrder(){
+		Map<String, Integer> origin = new LinkedHashMap<String, Integer>(16, 0.75f, true);
+		origin.put("a", 1);
+		origin.put("b", 2);
+		origin.put("c", 3);
+		origin.get("a");
+		List<String> order = new ArrayList<String>(origin.keySet());
+		Map<String, Integer> copy = CloneUtil.deepCopy(origin);
+		// probing the access order leaves the origin as it was
+		assertEquals(order, new ArrayList<String>(origin.keySet()));
+		assertEquals(order, new ArrayList<String>(copy.keySet()));
+		copy.get("b");
+		assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<String>(copy.keySet()));
+	}
+
+	@Test
+	public void linkedHashMapKeepsInsertionOrder(){
+		Map<String, Integer> origin = new LinkedHashMap<String, Integer>();
+		origin.put("b", 2);
+		origin.put("a", 1);
+		Map<String, Integer> copy = CloneUtil.deepCopy(origin);
+		copy.get("b");
+		assertEquals(Arrays.asList("b", "a"), new ArrayList<String>(copy.keySet()));
+	}
+
+	@Test
+	public void jdkValuesAreShared(){
+		Resource origin = new Resource();
+		origin.file = new File("/tmp/fan");
+		origin.uri = URI.create("http://fancore/");
+		origin.pattern = Pattern.compile("fan.*");
+		origin.calendar = Calendar.getInstance();
+		Resource copy = CloneUtil.deepCopy(origin);
+		assertTrue(copy != origin);
+		assertTrue(copy.file == origin.file);
+		assertTrue(copy.uri == origin.uri);
+		assertTrue(copy.pattern == origin.pattern);
+		// cloneable JDK values are cloned instead of reflected into
+		assertTrue(copy.calendar != origin.calendar);
+		assertEquals(origin.calendar, copy.calendar);
+		assertTrue(CloneUtil.isImmutable(File.class));
+	}
+
+	/**
+	 * <p> <b> @描述：</b> 持有 JDK 值类型字段的对象
+	 * <p> <b> @作者：</b> fancore
+	 * <p> <b> @邮箱：</b> fancore@126.com
+	 * <p> <b> @日期：</b> 2014-08-07
+	 */
+	public static class Resource {
+
+		File file;
+		URI uri;
+		Pattern pattern;
+		Calendar calendar;
+	}
+
+}